@@ -3,8 +3,7 @@ package top.infra.maven.extension.mavenbuild;
 import static top.infra.maven.extension.mavenbuild.utils.MavenUtils.profileId;
 import static top.infra.maven.extension.mavenbuild.utils.MavenUtils.projectName;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 
 import org.apache.maven.model.Model;
@@ -14,6 +13,8 @@ import org.apache.maven.model.profile.ProfileActivationContext;
 
 import top.infra.maven.extension.mavenbuild.model.ActivatorModelResolver;
 import top.infra.maven.extension.mavenbuild.model.ProjectBuilderActivatorModelResolver;
+import top.infra.maven.extension.mavenbuild.model.RawModelResolver;
+import top.infra.maven.extension.mavenbuild.utils.ComputeOnceMap;
 import top.infra.maven.extension.mavenbuild.utils.MavenUtils;
 import top.infra.maven.logging.Logger;
 import top.infra.maven.logging.LoggerPlexusImpl;
@@ -28,7 +29,14 @@ public abstract class AbstractCustomActivator implements CustomActivator {
 
     protected final ActivatorModelResolver resolver;
 
-    private final Map<String, Boolean> profileMemento;
+    private final RawModelResolver rawModelResolver;
+
+    private final ActivationDecisionStore decisionStore;
+
+    /**
+     * Decisions by profile (if {@link #cacheResult()}), made once, other threads (parallel builds) wait for it.
+     */
+    private final ComputeOnceMap<String, Boolean> profileMemento;
 
     protected AbstractCustomActivator(
         final org.codehaus.plexus.logging.Logger logger,
@@ -36,8 +44,10 @@ public abstract class AbstractCustomActivator implements CustomActivator {
     ) {
         this.logger = new LoggerPlexusImpl(logger);
         this.resolver = resolver;
+        this.rawModelResolver = resolver.getRawModelResolver();
+        this.decisionStore = resolver.getDecisionStore();
 
-        this.profileMemento = new LinkedHashMap<>();
+        this.profileMemento = new ComputeOnceMap<>();
     }
 
     @Override
@@ -47,43 +57,40 @@ public abstract class AbstractCustomActivator implements CustomActivator {
         final ModelProblemCollector problems
     ) {
         try {
-            final Boolean result;
-
-            final Boolean found = this.profileMemento.get(profile.toString());
-
-            if (found == null) {
-                if (!this.presentInConfig(profile, context, problems)) {
-                    result = false;
-
-                    if (logger.isDebugEnabled()) {
-                        logger.debug(String.format("%s profile '%s' not presentInConfig", this.getName(), profileId(profile)));
-                        logger.debug(String.format("%s project='%s' profile='%s' result='false'",
-                            this.getName(), projectName(context), profileId(profile)));
-                    }
-                } else {
-                    // Required project.
-                    final Optional<Model> project = this.resolver.resolveModel(profile, context);
-                    if (project.isPresent()) {
-                        result = this.isActive(project.get(), profile, context, problems);
-                    } else {
-                        // reportProblem("Failed to resolve model", new Exception("Invalid Project"), profile, context, problems);
-                        result = false;
-                    }
-
-                    if (this.cacheResult()) {
-                        this.profileMemento.put(profile.toString(), result);
-                    }
-
-                    if (result || this.cacheResult()) {
-                        logger.info(String.format("%s project='%s' profile='%s' result='%s'",
-                            this.getName(), projectName(context), profileId(profile), result));
-                    } else if (logger.isDebugEnabled()) {
-                        logger.debug(String.format("%s project='%s' profile='%s' result='false'",
-                            this.getName(), projectName(context), profileId(profile)));
-                    }
+            final boolean result;
+
+            final Optional<Boolean> found = this.profileMemento.find(profile.toString());
+
+            final Optional<String> fingerprint = found.isPresent() ? Optional.empty() : this.decisionFingerprint(profile, context);
+            final Optional<Boolean> persisted = fingerprint.flatMap(this.decisionStore::find);
+
+            if (found.isPresent()) {
+                result = found.get();
+            } else if (persisted.isPresent()) {
+                result = this.cacheResult()
+                    ? this.profileMemento.get(profile.toString(), persisted::get, persisted::get)
+                    : persisted.get();
+
+                if (result || this.cacheResult()) {
+                    logger.info(String.format("%s project='%s' profile='%s' result='%s' (decided by previous build)",
+                        this.getName(), projectName(context), profileId(profile), result));
+                }
+            } else if (!this.presentInConfig(profile, context, problems)) {
+                result = false;
+
+                if (logger.isDebugEnabled()) {
+                    logger.debug(String.format("%s profile '%s' not presentInConfig", this.getName(), profileId(profile)));
+                    logger.debug(String.format("%s project='%s' profile='%s' result='false'",
+                        this.getName(), projectName(context), profileId(profile)));
                 }
+            } else if (this.cacheResult()) {
+                result = this.profileMemento.get(
+                    profile.toString(),
+                    () -> this.decide(profile, context, problems, fingerprint),
+                    () -> this.decide(profile, context, problems, fingerprint)
+                );
             } else {
-                result = found;
+                result = this.decide(profile, context, problems, fingerprint);
             }
 
             return result;
@@ -94,6 +101,64 @@ public abstract class AbstractCustomActivator implements CustomActivator {
         }
     }
 
+    private boolean decide(
+        final Profile profile,
+        final ProfileActivationContext context,
+        final ModelProblemCollector problems,
+        final Optional<String> fingerprint
+    ) {
+        final boolean result;
+
+        // Required project.
+        final Optional<Model> project = this.resolveModel(profile, context);
+        if (project.isPresent()) {
+            result = this.isActive(project.get(), profile, context, problems);
+        } else {
+            // reportProblem("Failed to resolve model", new Exception("Invalid Project"), profile, context, problems);
+            result = false;
+        }
+
+        if (result || this.cacheResult()) {
+            logger.info(String.format("%s project='%s' profile='%s' result='%s'",
+                this.getName(), projectName(context), profileId(profile), result));
+        } else if (logger.isDebugEnabled()) {
+            logger.debug(String.format("%s project='%s' profile='%s' result='false'",
+                this.getName(), projectName(context), profileId(profile)));
+        }
+
+        fingerprint.ifPresent(value -> this.decisionStore.put(value, result));
+
+        return result;
+    }
+
+    private Optional<String> decisionFingerprint(final Profile profile, final ProfileActivationContext context) {
+        return this.decisionInputs(profile, context).map(inputs -> String.format("%s|%s|%s", this.getName(), profile, inputs));
+    }
+
+    /**
+     * Inputs of decision on profile (other than the profile itself), e.g. java version.
+     * Decisions of activators that provide inputs are persisted across builds (see {@link ActivationDecisionStore}).
+     * Note: inputs must cover everything {@link #isActive(Model, Profile, ProfileActivationContext, ModelProblemCollector)} reads.
+     *
+     * @param profile profile
+     * @param context context
+     * @return inputs, empty if decision should not be persisted
+     */
+    protected Optional<String> decisionInputs(final Profile profile, final ProfileActivationContext context) {
+        return Optional.empty();
+    }
+
+    /**
+     * Lightweight model (see {@link RawModelResolver}) of project in context.
+     *
+     * @param context       context
+     * @param propertyNames properties needed
+     * @return model, empty if pom.xml not found or raw models are not enough
+     */
+    protected Optional<Model> rawModel(final ProfileActivationContext context, final List<String> propertyNames) {
+        return this.rawModelResolver.resolveModel(context, propertyNames);
+    }
+
     protected boolean cacheResult() {
         return false;
     }
@@ -104,7 +169,24 @@ public abstract class AbstractCustomActivator implements CustomActivator {
         final ProfileActivationContext context,
         final ModelProblemCollector problems
     ) {
-        return this.supported(profile) && this.resolver.resolveModel(profile, context).isPresent();
+        return this.supported(profile) && this.resolveModel(profile, context).isPresent();
+    }
+
+    /**
+     * Properties of model this activator reads.
+     * Activators that return names here get a lightweight model (coordinates and these properties, see {@link RawModelResolver}),
+     * effective model is built only if the lightweight one can not be resolved.
+     *
+     * @return property names, empty if effective model is required
+     */
+    protected Optional<List<String>> modelProperties() {
+        return Optional.empty();
+    }
+
+    private Optional<Model> resolveModel(final Profile profile, final ProfileActivationContext context) {
+        final Optional<Model> lightweight = this.modelProperties()
+            .flatMap(names -> this.rawModelResolver.resolveModel(profile, context, names));
+        return lightweight.isPresent() ? lightweight : this.resolver.resolveModel(profile, context);
     }
 
     protected String getName() {
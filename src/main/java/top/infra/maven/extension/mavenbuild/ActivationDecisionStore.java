@@ -0,0 +1,161 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.newTuple;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import top.infra.exception.RuntimeIOException;
+import top.infra.maven.extension.mavenbuild.utils.FileUtils;
+import top.infra.maven.extension.mavenbuild.utils.SupportFunction;
+import top.infra.maven.logging.Logger;
+
+/**
+ * Profile activation decisions persisted across builds (under CACHE_INFRASTRUCTURE_PATH).
+ * <p/>
+ * Decisions are keyed by a fingerprint of all inputs of the decision (activator, profile and e.g. java version),
+ * a decision is made again when its fingerprint changes.
+ * <p/>
+ * The file is shared by all projects (and concurrent builds) on the host. Decisions used by current build are merged
+ * into decisions on disk under a file lock. Each decision records when it was last used, ones not used for 30 days
+ * are dropped and at most 10,000 most recently used ones are kept.
+ */
+public class ActivationDecisionStore {
+
+    private static final String FILE_DECISIONS = "activation-decisions.properties";
+    private static final String FILE_LOCK = "activation-decisions.lock";
+    private static final String SEPARATOR = ",";
+
+    private static final long MAX_AGE_MILLIS = 30L * 24L * 60L * 60L * 1000L;
+    private static final int MAX_DECISIONS = 10000;
+
+    /**
+     * Last used time of a decision is not rewritten more often than this.
+     */
+    private static final long REFRESH_MILLIS = 24L * 60L * 60L * 1000L;
+
+    private final Logger logger;
+
+    /**
+     * Decisions of previous builds (with last used time) by hash of fingerprint.
+     */
+    private final Map<String, Entry<Boolean, Long>> loaded;
+
+    /**
+     * Decisions used or made by current build by hash of fingerprint.
+     */
+    private final Map<String, Boolean> used;
+
+    private Path file;
+
+    public ActivationDecisionStore(final Logger logger) {
+        this.logger = logger;
+        this.loaded = new ConcurrentHashMap<>();
+        this.used = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Load decisions of previous builds.
+     *
+     * @param cacheDirectory cache directory
+     */
+    public void load(final Path cacheDirectory) {
+        this.file = cacheDirectory.resolve(FILE_DECISIONS);
+        this.loaded.clear();
+        this.loaded.putAll(this.read());
+    }
+
+    public Optional<Boolean> find(final String fingerprint) {
+        final String key = SupportFunction.sha256(fingerprint);
+        final Entry<Boolean, Long> found = this.loaded.get(key);
+        if (found != null) {
+            this.used.put(key, found.getKey());
+        }
+        return found != null ? Optional.of(found.getKey()) : Optional.empty();
+    }
+
+    public void put(final String fingerprint, final boolean decision) {
+        this.used.put(SupportFunction.sha256(fingerprint), decision);
+    }
+
+    /**
+     * Merge decisions used by current build into decisions on disk (made by other projects or builds meanwhile).
+     */
+    public void save() {
+        final long now = System.currentTimeMillis();
+        final boolean upToDate = this.used.entrySet().stream().allMatch(entry -> {
+            final Entry<Boolean, Long> found = this.loaded.get(entry.getKey());
+            return found != null && found.getKey().equals(entry.getValue()) && now - found.getValue() < REFRESH_MILLIS;
+        });
+        if (this.file == null || upToDate) {
+            return;
+        }
+
+        try {
+            final Path directory = this.file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            try (final FileChannel channel = FileChannel.open(
+                directory.resolve(FILE_LOCK), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                final FileLock fileLock = channel.lock();
+                try {
+                    final Map<String, Entry<Boolean, Long>> merged = this.read();
+                    this.used.forEach((key, decision) -> merged.put(key, newTuple(decision, now)));
+
+                    final Properties properties = new Properties();
+                    merged.entrySet().stream()
+                        .filter(entry -> now - entry.getValue().getValue() <= MAX_AGE_MILLIS)
+                        .sorted(Comparator.comparing((Entry<String, Entry<Boolean, Long>> entry) -> entry.getValue().getValue()).reversed())
+                        .limit(MAX_DECISIONS)
+                        .forEach(entry -> properties.setProperty(
+                            entry.getKey(), entry.getValue().getKey() + SEPARATOR + entry.getValue().getValue()));
+
+                    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                    properties.store(outputStream, null);
+                    FileUtils.writeFileAtomically(this.file, outputStream.toByteArray());
+                } finally {
+                    fileLock.release();
+                }
+            }
+        } catch (final IOException | RuntimeIOException ex) {
+            logger.warn(String.format("Error write activation decisions [%s]. %s", this.file, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Read decisions on disk.
+     *
+     * @return decision and last used time by hash of fingerprint, empty if file not found or unreadable
+     */
+    private Map<String, Entry<Boolean, Long>> read() {
+        final Map<String, Entry<Boolean, Long>> result = new HashMap<>();
+        if (this.file.toFile().exists()) {
+            final Properties properties = new Properties();
+            try (final InputStream inputStream = Files.newInputStream(this.file)) {
+                properties.load(inputStream);
+                properties.stringPropertyNames().forEach(key -> {
+                    // "decision,lastUsed", lastUsed absent in files of previous versions
+                    final String[] value = properties.getProperty(key).split(SEPARATOR, 2);
+                    final long lastUsed = value.length > 1 ? Long.parseLong(value[1]) : 0L;
+                    result.put(key, newTuple(Boolean.parseBoolean(value[0]), lastUsed));
+                });
+            } catch (final IOException | IllegalArgumentException ex) {
+                logger.warn(String.format("Error read activation decisions [%s]. %s", this.file, ex.getMessage()));
+                result.clear();
+            }
+        }
+        return result;
+    }
+}
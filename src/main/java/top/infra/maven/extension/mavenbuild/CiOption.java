@@ -34,6 +34,7 @@ import static top.infra.maven.extension.mavenbuild.utils.SystemUtils.systemUserH
 import java.io.File;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -41,6 +42,7 @@ import java.util.Properties;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import top.infra.maven.extension.mavenbuild.utils.SupportFunction;
 
@@ -94,7 +96,7 @@ public enum CiOption {
         }
 
         @Override
-        public Optional<String> getValue(
+        protected Optional<String> resolveValue(
             final GitProperties gitProperties,
             final Properties systemProperties,
             final Properties userProperties
@@ -367,12 +369,12 @@ public enum CiOption {
         }
 
         @Override
-        public Optional<String> getValue(
+        protected Optional<String> resolveValue(
             final GitProperties gitProperties,
             final Properties systemProperties,
             final Properties userProperties
         ) {
-            return super.getValue(gitProperties, systemProperties, userProperties)
+            return super.resolveValue(gitProperties, systemProperties, userProperties)
                 .map(value -> value.endsWith("docker.io") ? null : value);
         }
     },
@@ -570,7 +572,7 @@ public enum CiOption {
     },
     GITHUB_SITE_PUBLISH("github.site.publish", BOOL_STRING_FALSE) {
         @Override
-        public Optional<String> getValue(
+        protected Optional<String> resolveValue(
             final GitProperties gitProperties,
             final Properties systemProperties,
             final Properties userProperties
@@ -696,27 +698,27 @@ public enum CiOption {
     JIRA_PROJECTKEY("jira.projectKey"),
     JIRA_USER("jira.user") {
         @Override
-        public Optional<String> getValue(
+        protected Optional<String> resolveValue(
             final GitProperties gitProperties,
             final Properties systemProperties,
             final Properties userProperties
         ) {
             final Optional<String> jiraProjectKey = JIRA_PROJECTKEY.getValue(gitProperties, systemProperties, userProperties);
             return jiraProjectKey.isPresent()
-                ? super.getValue(gitProperties, systemProperties, userProperties)
+                ? super.resolveValue(gitProperties, systemProperties, userProperties)
                 : Optional.empty();
         }
     },
     JIRA_PASSWORD("jira.password") {
         @Override
-        public Optional<String> getValue(
+        protected Optional<String> resolveValue(
             final GitProperties gitProperties,
             final Properties systemProperties,
             final Properties userProperties
         ) {
             final Optional<String> jiraProjectKey = JIRA_PROJECTKEY.getValue(gitProperties, systemProperties, userProperties);
             return jiraProjectKey.isPresent()
-                ? super.getValue(gitProperties, systemProperties, userProperties)
+                ? super.resolveValue(gitProperties, systemProperties, userProperties)
                 : Optional.empty();
         }
     },
@@ -805,7 +807,7 @@ public enum CiOption {
     MVN_DEPLOY_PUBLISH_SEGREGATION("mvn.deploy.publish.segregation"),
     NEXUS2_STAGING("nexus2.staging") {
         @Override
-        public Optional<String> getValue(
+        protected Optional<String> resolveValue(
             final GitProperties gitProperties,
             final Properties systemProperties,
             final Properties userProperties
@@ -814,7 +816,7 @@ public enum CiOption {
             final boolean publishSnapshot = publishChannel.map(PUBLISH_CHANNEL_SNAPSHOT::equals).orElse(FALSE);
             return publishSnapshot
                 ? Optional.of(BOOL_STRING_FALSE)
-                : super.getValue(gitProperties, systemProperties, userProperties);
+                : super.resolveValue(gitProperties, systemProperties, userProperties);
         }
     },
 
@@ -1163,7 +1165,7 @@ public enum CiOption {
     },
     SONAR_LOGIN("sonar.login") {
         @Override
-        public Optional<String> getValue(
+        protected Optional<String> resolveValue(
             final GitProperties gitProperties,
             final Properties systemProperties,
             final Properties userProperties
@@ -1172,13 +1174,13 @@ public enum CiOption {
                 .map(Boolean::parseBoolean).orElse(FALSE);
 
             return sonar
-                ? super.getValue(gitProperties, systemProperties, userProperties)
+                ? super.resolveValue(gitProperties, systemProperties, userProperties)
                 : Optional.empty();
         }
     },
     SONAR_ORGANIZATION("sonar.organization") {
         @Override
-        public Optional<String> getValue(
+        protected Optional<String> resolveValue(
             final GitProperties gitProperties,
             final Properties systemProperties,
             final Properties userProperties
@@ -1189,13 +1191,13 @@ public enum CiOption {
                 .map(INFRASTRUCTURE_OPENSOURCE::equals).orElse(FALSE);
 
             return sonar && openSource
-                ? super.getValue(gitProperties, systemProperties, userProperties)
+                ? super.resolveValue(gitProperties, systemProperties, userProperties)
                 : Optional.empty();
         }
     },
     SONAR_PASSWORD("sonar.password") {
         @Override
-        public Optional<String> getValue(
+        protected Optional<String> resolveValue(
             final GitProperties gitProperties,
             final Properties systemProperties,
             final Properties userProperties
@@ -1204,7 +1206,7 @@ public enum CiOption {
                 .map(Boolean::parseBoolean).orElse(FALSE);
 
             return sonar
-                ? super.getValue(gitProperties, systemProperties, userProperties)
+                ? super.resolveValue(gitProperties, systemProperties, userProperties)
                 : Optional.empty();
         }
     },
@@ -1343,6 +1345,9 @@ public enum CiOption {
     public static final Pattern PATTERN_GIT_REPO_SLUG = Pattern.compile(".*[:/]([^/]+(/[^/.]+))(\\.git)?");
     private static final Pattern PATTERN_URL = Pattern.compile("^(.+://|git@)([^/\\:]+(:\\d+)?).*$");
 
+    private static final Map<String, CiOption> BY_NAME = Collections.unmodifiableMap(Arrays.stream(CiOption.values())
+        .collect(Collectors.toMap(CiOption::name, Function.identity())));
+
     private final String defaultValue;
     private final String envVariableName;
     private final String propertyName;
@@ -1432,9 +1437,7 @@ public enum CiOption {
         final Properties userProperties
     ) {
         return INFRASTRUCTURE.getValue(gitProperties, systemProperties, userProperties)
-            .map(infra -> Arrays.stream(CiOption.values())
-                .filter(opt -> opt.name().equals(infra.toUpperCase() + "_" + ciOption.name()))
-                .findFirst()
+            .map(infra -> Optional.ofNullable(BY_NAME.get(infra.toUpperCase() + "_" + ciOption.name()))
                 .map(opt -> opt.getValue(gitProperties, systemProperties, userProperties).orElse(null))
                 .orElseGet(() -> {
                     final String propName = infra + "." + ciOption.getPropertyName();
@@ -1571,13 +1574,34 @@ public enum CiOption {
 
     /**
      * Get value.
+     * <p/>
+     * Served from the {@link CiOptionSnapshot} being resolved on current thread (if it is for the same properties),
+     * so nested options are evaluated only once.
+     *
+     * @param gitProperties    gitProperties
+     * @param systemProperties systemProperties
+     * @param userProperties   userProperties
+     * @return Optional value
+     */
+    public final Optional<String> getValue(
+        final GitProperties gitProperties,
+        final Properties systemProperties,
+        final Properties userProperties
+    ) {
+        return CiOptionSnapshot.current(gitProperties, systemProperties, userProperties)
+            .map(snapshot -> snapshot.get(this))
+            .orElseGet(() -> this.resolveValue(gitProperties, systemProperties, userProperties));
+    }
+
+    /**
+     * Resolve value, without memoization.
      *
      * @param gitProperties    gitProperties
      * @param systemProperties systemProperties
      * @param userProperties   userProperties
      * @return Optional value
      */
-    public Optional<String> getValue(
+    protected Optional<String> resolveValue(
         final GitProperties gitProperties,
         final Properties systemProperties,
         final Properties userProperties
@@ -41,6 +41,10 @@ public class CiOptionAccessor {
     private final Properties systemProperties;
     private final Properties userProperties;
 
+    private CiOptionSnapshot snapshot;
+    private int snapshotSystemSize;
+    private int snapshotUserSize;
+
     public CiOptionAccessor(
         final GitProperties gitProperties,
         final Properties systemProperties,
@@ -49,6 +53,10 @@ public class CiOptionAccessor {
         this.gitProperties = gitProperties;
         this.systemProperties = systemProperties;
         this.userProperties = userProperties;
+
+        this.snapshot = null;
+        this.snapshotSystemSize = 0;
+        this.snapshotUserSize = 0;
     }
 
     private String createCache(final CiOption ciOpt) {
@@ -124,8 +132,39 @@ public class CiOptionAccessor {
         return this.createCache(CACHE_SESSION_PATH);
     }
 
+    /**
+     * Value of ciOption, resolved once per snapshot of properties (see {@link #invalidate()}).
+     * Resolution does not hold a lock of this accessor.
+     *
+     * @param ciOption ciOption
+     * @return Optional value
+     */
     public Optional<String> getOption(final CiOption ciOption) {
-        return ciOption.getValue(this.gitProperties, this.systemProperties, this.userProperties);
+        return this.snapshot().get(ciOption);
+    }
+
+    /**
+     * Discard resolved option values, they will be resolved again on next access.
+     * <p/>
+     * Properties added to or removed from systemProperties or userProperties (of this accessor) are detected on next access
+     * by their sizes (no hashing of all properties), this must be called by code that changes value of an existing property.
+     * Writes of this accessor call this, and the event spy calls this after each dispatched event.
+     * Handlers should not call this while other handlers of the same event may read options on other threads,
+     * they would see values of both snapshots.
+     */
+    public synchronized void invalidate() {
+        this.snapshot = null;
+    }
+
+    private synchronized CiOptionSnapshot snapshot() {
+        final int systemSize = this.systemProperties.size();
+        final int userSize = this.userProperties.size();
+        if (this.snapshot == null || this.snapshotSystemSize != systemSize || this.snapshotUserSize != userSize) {
+            this.snapshot = new CiOptionSnapshot(this.gitProperties, this.systemProperties, this.userProperties);
+            this.snapshotSystemSize = systemSize;
+            this.snapshotUserSize = userSize;
+        }
+        return this.snapshot;
     }
 
     public Properties getSystemProperties() {
@@ -137,21 +176,27 @@ public class CiOptionAccessor {
             logger,
             this.getOption(MAVEN_BUILD_OPTS_REPO).orElse(null),
             this.getOption(MAVEN_BUILD_OPTS_REPO_REF).orElse(null),
-            this.getOption(GIT_AUTH_TOKEN).orElse(null)
+            this.getOption(GIT_AUTH_TOKEN).orElse(null),
+            this.getOption(CACHE_INFRASTRUCTURE_PATH).map(Paths::get).orElse(null)
         );
     }
 
     public Properties setCiOptPropertiesInto(final Properties... targetProperties) {
         final Properties ciOptProperties = new Properties();
 
-        Arrays
-            .stream(CiOption.values())
-            .sorted()
-            .forEach(ciOption -> ciOption.setProperties(this.gitProperties, this.systemProperties, this.userProperties, ciOptProperties));
+        this.snapshot().with(() -> {
+            Arrays
+                .stream(CiOption.values())
+                .sorted()
+                .forEach(ciOption ->
+                    ciOption.setProperties(this.gitProperties, this.systemProperties, this.userProperties, ciOptProperties));
+            return ciOptProperties;
+        });
 
         for (final Properties target : targetProperties) {
             PropertiesUtils.merge(ciOptProperties, target);
         }
+        this.invalidate();
 
         return ciOptProperties;
     }
@@ -164,5 +209,6 @@ public class CiOptionAccessor {
                 this.systemProperties.setProperty(key, value);
             }
         }
+        this.invalidate();
     }
 }
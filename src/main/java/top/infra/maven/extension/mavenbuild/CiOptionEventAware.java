@@ -12,6 +12,8 @@ import static top.infra.maven.extension.mavenbuild.SystemToUserPropertiesEventAw
 import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.isEmpty;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Properties;
@@ -73,8 +75,10 @@ public class CiOptionEventAware implements MavenEventAware {
                 result.updateSystemProperties(this.loadedProperties);
 
                 // github site options
-                result.getOption(GITHUB_GLOBAL_REPOSITORYOWNER).ifPresent(owner ->
-                    systemProperties.setProperty(GITHUB_GLOBAL_REPOSITORYOWNER.getSystemPropertyName(), owner));
+                result.getOption(GITHUB_GLOBAL_REPOSITORYOWNER).ifPresent(owner -> {
+                    systemProperties.setProperty(GITHUB_GLOBAL_REPOSITORYOWNER.getSystemPropertyName(), owner);
+                    result.invalidate();
+                });
 
                 // write all ciOpt properties into systemProperties userProperties
                 this.ciOptProperties = result.setCiOptPropertiesInto(userProperties);
@@ -90,6 +94,11 @@ public class CiOptionEventAware implements MavenEventAware {
         return ORDER_CI_OPTION;
     }
 
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Collections.singletonList(SystemToUserPropertiesEventAware.class));
+    }
+
     @Override
     public void onInit(final Context context) {
         this.ciOpts = this.getCiOpts(context);
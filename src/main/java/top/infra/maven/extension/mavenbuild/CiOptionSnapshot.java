@@ -0,0 +1,119 @@
+package top.infra.maven.extension.mavenbuild;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import top.infra.maven.extension.mavenbuild.utils.ComputeOnceMap;
+
+/**
+ * Resolved values of {@link CiOption}s for a set of properties.
+ * <p/>
+ * Each option is evaluated at most once, on first access, after the options it depends on (depth first).
+ * Options are resolved without holding a lock, threads asking for an option being resolved wait for that option only
+ * (dependencies between options are acyclic, so threads can not wait for each other in a cycle).
+ * A snapshot must be discarded when the properties change, see {@link CiOptionAccessor}.
+ */
+class CiOptionSnapshot {
+
+    private static final ThreadLocal<CiOptionSnapshot> RESOLVING = new ThreadLocal<>();
+
+    private final GitProperties gitProperties;
+    private final Properties systemProperties;
+    private final Properties userProperties;
+
+    private final ComputeOnceMap<CiOption, Optional<String>> values;
+    /**
+     * Options being resolved by current thread, in order.
+     */
+    private final ThreadLocal<Set<CiOption>> resolving;
+
+    CiOptionSnapshot(
+        final GitProperties gitProperties,
+        final Properties systemProperties,
+        final Properties userProperties
+    ) {
+        this.gitProperties = gitProperties;
+        this.systemProperties = systemProperties;
+        this.userProperties = userProperties;
+
+        this.values = new ComputeOnceMap<>();
+        this.resolving = ThreadLocal.withInitial(LinkedHashSet::new);
+    }
+
+    /**
+     * Snapshot being resolved on current thread, only if it is for the same properties (instances).
+     *
+     * @param gitProperties    gitProperties
+     * @param systemProperties systemProperties
+     * @param userProperties   userProperties
+     * @return snapshot
+     */
+    static Optional<CiOptionSnapshot> current(
+        final GitProperties gitProperties,
+        final Properties systemProperties,
+        final Properties userProperties
+    ) {
+        final CiOptionSnapshot snapshot = RESOLVING.get();
+        return snapshot != null
+            && snapshot.gitProperties == gitProperties
+            && snapshot.systemProperties == systemProperties
+            && snapshot.userProperties == userProperties
+            ? Optional.of(snapshot)
+            : Optional.empty();
+    }
+
+    /**
+     * Get (resolve on first access) value of ciOption.
+     *
+     * @param ciOption ciOption
+     * @return Optional value
+     * @throws IllegalStateException on circular dependencies between options
+     */
+    Optional<String> get(final CiOption ciOption) {
+        return this.values.get(ciOption, () -> this.resolve(ciOption), () -> {
+            final List<CiOption> path = new ArrayList<>(this.resolving.get());
+            path.add(ciOption);
+            throw new IllegalStateException(String.format("Circular dependencies found between options %s", path));
+        });
+    }
+
+    private Optional<String> resolve(final CiOption ciOption) {
+        final Set<CiOption> path = this.resolving.get();
+        path.add(ciOption);
+        try {
+            return this.with(() -> ciOption.resolveValue(this.gitProperties, this.systemProperties, this.userProperties));
+        } finally {
+            path.remove(ciOption);
+            if (path.isEmpty()) {
+                this.resolving.remove();
+            }
+        }
+    }
+
+    /**
+     * Run action with this snapshot, {@link CiOption#getValue(GitProperties, Properties, Properties)} calls in action
+     * are served by this snapshot.
+     *
+     * @param action action
+     * @param <T>    type of result
+     * @return result of action
+     */
+    <T> T with(final Supplier<T> action) {
+        final CiOptionSnapshot previous = RESOLVING.get();
+        RESOLVING.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                RESOLVING.set(previous);
+            } else {
+                RESOLVING.remove();
+            }
+        }
+    }
+}
@@ -5,5 +5,12 @@ import org.apache.maven.model.profile.activation.ProfileActivator;
 
 public interface CustomActivator extends ProfileActivator {
 
+    /**
+     * Whether this activator applies to profile.
+     * Note: decided by profile id only, {@link MavenBuildProfileSelector} indexes the result by id.
+     *
+     * @param profile profile
+     * @return supported
+     */
     boolean supported(Profile profile);
 }
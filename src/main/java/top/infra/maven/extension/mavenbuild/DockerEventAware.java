@@ -15,6 +15,7 @@ import static top.infra.maven.extension.mavenbuild.MavenGoalEditor.GOAL_PACKAGE;
 import static top.infra.maven.extension.mavenbuild.MavenGoalEditor.GOAL_SITE;
 import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.isNotEmpty;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,6 +50,11 @@ public class DockerEventAware implements MavenEventAware {
         return ORDER_DOCKER;
     }
 
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Collections.singletonList(MavenGoalEditorEventAware.class));
+    }
+
     @Override
     public void onProjectBuildingRequest(
         final MavenExecutionRequest mavenExecution,
@@ -0,0 +1,207 @@
+package top.infra.maven.extension.mavenbuild;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import top.infra.exception.RuntimeIOException;
+import top.infra.maven.extension.mavenbuild.utils.FileUtils;
+import top.infra.maven.extension.mavenbuild.utils.SupportFunction;
+import top.infra.maven.logging.Logger;
+
+/**
+ * Host wide content addressed store of files downloaded from git repositories (under CACHE_INFRASTRUCTURE_PATH).
+ * <p/>
+ * Entries are keyed by repo, ref and path. An entry is fetched by one thread (lock map) of one process (FileChannel lock)
+ * at a time, others wait and reuse it. Content and metadata are published by atomic rename.
+ */
+public class DownloadStore {
+
+    private static final String FILE_CONTENT = "content";
+    private static final String FILE_LOCK = "lock";
+    private static final String FILE_METADATA = "metadata.properties";
+
+    private static final String METADATA_FETCHED = "fetched";
+
+    /**
+     * FileChannel lock is held by the process, threads of same process are serialized by these.
+     * An entry is removed when its last user releases it.
+     */
+    private static final ConcurrentMap<String, KeyLock> LOCKS = new ConcurrentHashMap<>();
+
+    private final Logger logger;
+
+    private final Path directory;
+
+    public DownloadStore(final Logger logger, final Path cacheDirectory) {
+        this.logger = logger;
+        this.directory = cacheDirectory.resolve("objects");
+    }
+
+    public StoreEntry entry(final String repo, final String repoRef, final String path) {
+        final String key = SupportFunction.sha256(repo + "|" + repoRef + "|" + path);
+        return new StoreEntry(key, this.directory.resolve(key.substring(0, 2)).resolve(key));
+    }
+
+    public class StoreEntry {
+
+        private final String key;
+        private final Path path;
+
+        StoreEntry(final String key, final Path path) {
+            this.key = key;
+            this.path = path;
+        }
+
+        public Path getContent() {
+            return this.path.resolve(FILE_CONTENT);
+        }
+
+        public boolean hasContent() {
+            return this.getContent().toFile().exists();
+        }
+
+        /**
+         * Whether content is fetched (or revalidated) at or after given time (e.g. by another process while waiting for lock).
+         *
+         * @param millis time
+         * @return fetched since
+         */
+        public boolean fetchedSince(final long millis) {
+            final String fetched = this.readMetadata().getProperty(METADATA_FETCHED);
+            return this.hasContent() && fetched != null && Long.parseLong(fetched) >= millis;
+        }
+
+        /**
+         * Metadata (e.g. response validators) of content.
+         *
+         * @return metadata, empty if not found
+         */
+        public Properties readMetadata() {
+            final Properties properties = new Properties();
+            final Path file = this.path.resolve(FILE_METADATA);
+            if (file.toFile().exists()) {
+                try (final InputStream inputStream = Files.newInputStream(file)) {
+                    properties.load(inputStream);
+                } catch (final IOException | IllegalArgumentException ex) {
+                    logger.warn(String.format("Error read download metadata [%s]. %s", file, ex.getMessage()));
+                    properties.clear();
+                }
+            }
+            return properties;
+        }
+
+        /**
+         * Write metadata, content is marked as fetched now.
+         *
+         * @param metadata metadata
+         */
+        public void writeMetadata(final Properties metadata) {
+            final Path file = this.path.resolve(FILE_METADATA);
+            final Properties properties = new Properties();
+            properties.putAll(metadata);
+            properties.setProperty(METADATA_FETCHED, Long.toString(System.currentTimeMillis()));
+            try {
+                Files.createDirectories(this.path);
+                final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                properties.store(outputStream, null);
+                FileUtils.writeFileAtomically(file, outputStream.toByteArray());
+            } catch (final IOException | RuntimeIOException ex) {
+                logger.warn(String.format("Error write download metadata [%s]. %s", file, ex.getMessage()));
+            }
+        }
+
+        /**
+         * Run action exclusively (across threads and processes on this host).
+         *
+         * @param action action
+         * @param <T>    result type
+         * @return result of action
+         */
+        public <T> T withLock(final Supplier<T> action) {
+            final KeyLock keyLock = KeyLock.acquire(this.key);
+            try {
+                Files.createDirectories(this.path);
+                try (final FileChannel channel = FileChannel.open(
+                    this.path.resolve(FILE_LOCK), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    final FileLock fileLock = channel.lock();
+                    try {
+                        return action.get();
+                    } finally {
+                        fileLock.release();
+                    }
+                }
+            } catch (final IOException ex) {
+                throw new RuntimeIOException(String.format("Error lock download store entry [%s]. %s", this.path, ex.getMessage()), ex);
+            } finally {
+                keyLock.release(this.key);
+            }
+        }
+
+        /**
+         * Copy content to target, readers of target never see a partially written file.
+         *
+         * @param target target file
+         * @throws IOException on error
+         */
+        public void publish(final Path target) throws IOException {
+            final Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            final Path tmp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+            try {
+                Files.copy(this.getContent(), tmp, StandardCopyOption.REPLACE_EXISTING);
+                FileUtils.moveAtomically(tmp, target);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return this.path.toString();
+        }
+    }
+
+    /**
+     * Lock of a key with count of threads holding or waiting for it.
+     */
+    private static final class KeyLock {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Guarded by LOCKS.compute.
+         */
+        private int users;
+
+        static KeyLock acquire(final String key) {
+            final KeyLock result = LOCKS.compute(key, (k, found) -> {
+                final KeyLock keyLock = found != null ? found : new KeyLock();
+                keyLock.users++;
+                return keyLock;
+            });
+            result.lock.lock();
+            return result;
+        }
+
+        void release(final String key) {
+            this.lock.unlock();
+            LOCKS.compute(key, (k, found) -> --found.users == 0 ? null : found);
+        }
+    }
+
+    static int locks() {
+        return LOCKS.size();
+    }
+}
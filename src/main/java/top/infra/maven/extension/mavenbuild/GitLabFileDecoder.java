@@ -0,0 +1,230 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Streaming decoder of GitLab files API response (`GET /projects/:id/repository/files/:file_path`).
+ * <p/>
+ * Base64 'content' field is decoded into output while reading, other top level string fields (e.g. blob_id)
+ * are collected, nothing is held in memory in full.
+ */
+final class GitLabFileDecoder {
+
+    static final String FIELD_CONTENT = "content";
+
+    /**
+     * Longer string fields (other than content) are skipped.
+     */
+    private static final int MAX_FIELD_LENGTH = 4096;
+
+    private final Reader reader;
+
+    private int pushback;
+
+    private GitLabFileDecoder(final InputStream json) {
+        this.reader = new BufferedReader(new InputStreamReader(json, UTF_8));
+        this.pushback = -2;
+    }
+
+    /**
+     * Decode 'content' of json into content.
+     *
+     * @param json    GitLab files API response
+     * @param content decoded content goes into
+     * @param fields  put top level string fields other than content into
+     * @return length of decoded content
+     * @throws IOException on read or write error or malformed json
+     */
+    static long decode(final InputStream json, final OutputStream content, final Map<String, String> fields) throws IOException {
+        return new GitLabFileDecoder(json).decodeObject(content, fields);
+    }
+
+    private long decodeObject(final OutputStream content, final Map<String, String> fields) throws IOException {
+        long length = 0L;
+        this.expect('{', this.nextNonWhitespace());
+        while (true) {
+            final int ch = this.nextNonWhitespace();
+            if (ch == '}') {
+                break;
+            } else if (ch == ',') {
+                continue;
+            }
+            this.expect('"', ch);
+            final String name = this.readString(MAX_FIELD_LENGTH);
+            this.expect(':', this.nextNonWhitespace());
+
+            final int valueStart = this.nextNonWhitespace();
+            if (valueStart == '"') {
+                if (FIELD_CONTENT.equals(name)) {
+                    length += this.decodeContent(content);
+                } else {
+                    final String value = this.readString(MAX_FIELD_LENGTH);
+                    if (name != null && value != null) {
+                        fields.put(name, value);
+                    }
+                }
+            } else {
+                this.skipValue(valueStart);
+            }
+        }
+        return length;
+    }
+
+    private long decodeContent(final OutputStream content) throws IOException {
+        // characters of json string (unescaped) as ascii bytes, mime decoder ignores line breaks
+        final InputStream base64 = new InputStream() {
+            private boolean end = false;
+
+            @Override
+            public int read() throws IOException {
+                if (this.end) {
+                    return -1;
+                }
+                final int ch = GitLabFileDecoder.this.nextStringChar();
+                if (ch == -1) {
+                    this.end = true;
+                }
+                return ch == -1 ? -1 : ch & 0xFF;
+            }
+        };
+
+        final InputStream decoded = Base64.getMimeDecoder().wrap(base64);
+        final byte[] buffer = new byte[8192];
+        long length = 0L;
+        int read;
+        while ((read = decoded.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+            length += read;
+        }
+        // decoder stops at padding, consume rest of the string
+        while (base64.read() != -1) {
+            // skip
+        }
+        return length;
+    }
+
+    private void skipValue(final int first) throws IOException {
+        if (first == '{' || first == '[') {
+            int depth = 1;
+            while (depth > 0) {
+                final int ch = this.next();
+                if (ch == -1) {
+                    throw new IOException("Unexpected end of json");
+                } else if (ch == '"') {
+                    this.readString(0);
+                } else if (ch == '{' || ch == '[') {
+                    depth++;
+                } else if (ch == '}' || ch == ']') {
+                    depth--;
+                }
+            }
+        } else {
+            // number, true, false or null
+            int ch = first;
+            while (ch != -1 && ch != ',' && ch != '}' && ch != ']' && !Character.isWhitespace(ch)) {
+                ch = this.next();
+            }
+            this.pushback = ch;
+        }
+    }
+
+    /**
+     * Read rest of a json string (after opening quote).
+     *
+     * @param maxLength max length
+     * @return string, null if longer than maxLength
+     * @throws IOException on error
+     */
+    private String readString(final int maxLength) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        boolean truncated = false;
+        int ch;
+        while ((ch = this.nextStringChar()) != -1) {
+            if (sb.length() < maxLength) {
+                sb.append((char) ch);
+            } else {
+                truncated = true;
+            }
+        }
+        return truncated ? null : sb.toString();
+    }
+
+    /**
+     * Next (unescaped) character of current json string.
+     *
+     * @return character, -1 on closing quote
+     * @throws IOException on error or end of input
+     */
+    private int nextStringChar() throws IOException {
+        final int ch = this.next();
+        if (ch == -1) {
+            throw new IOException("Unexpected end of json string");
+        } else if (ch == '"') {
+            return -1;
+        } else if (ch != '\\') {
+            return ch;
+        }
+
+        final int escaped = this.next();
+        switch (escaped) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                final char[] hex = new char[4];
+                for (int idx = 0; idx < hex.length; idx++) {
+                    hex[idx] = (char) this.next();
+                }
+                try {
+                    return Integer.parseInt(new String(hex), 16);
+                } catch (final NumberFormatException ex) {
+                    throw new IOException("Malformed json escape \\u" + new String(hex), ex);
+                }
+            case -1:
+                throw new IOException("Unexpected end of json string");
+            default:
+                // '"', '\\', '/'
+                return escaped;
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int ch = this.next();
+        while (ch != -1 && Character.isWhitespace(ch)) {
+            ch = this.next();
+        }
+        return ch;
+    }
+
+    private int next() throws IOException {
+        if (this.pushback != -2) {
+            final int ch = this.pushback;
+            this.pushback = -2;
+            return ch;
+        }
+        return this.reader.read();
+    }
+
+    private void expect(final char expected, final int actual) throws IOException {
+        if (actual != expected) {
+            throw new IOException(String.format("Malformed json, expected '%s' but found '%s'",
+                expected, actual == -1 ? "EOF" : String.valueOf((char) actual)));
+        }
+    }
+}
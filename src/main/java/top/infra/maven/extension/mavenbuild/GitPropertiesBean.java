@@ -1,6 +1,10 @@
 package top.infra.maven.extension.mavenbuild;
 
-import java.util.HashMap;
+import static top.infra.maven.extension.mavenbuild.CiOption.CACHE_INFRASTRUCTURE_PATH;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -9,6 +13,9 @@ import javax.inject.Singleton;
 import top.infra.maven.logging.Logger;
 import top.infra.maven.logging.LoggerPlexusImpl;
 
+/**
+ * Git properties of current directory, computed on first access.
+ */
 @Named
 @Singleton
 public class GitPropertiesBean extends GitProperties {
@@ -19,6 +26,25 @@ public class GitPropertiesBean extends GitProperties {
     }
 
     private GitPropertiesBean(final Logger logger) {
-        super(logger, gitPropertiesMap(logger).orElse(new HashMap<>()));
+        super(logger, cacheDirectory(logger));
+    }
+
+    /**
+     * Maven session properties are not available yet when this bean is created,
+     * CACHE_INFRASTRUCTURE_PATH does not depend on git properties, so resolve it from env variables and system properties
+     * (maven copies -Dproperty=value into system properties).
+     *
+     * @param logger logger
+     * @return cache directory
+     */
+    private static Path cacheDirectory(final Logger logger) {
+        final Properties systemProperties = new Properties();
+        System.getenv().forEach((name, value) -> systemProperties.setProperty("env." + name, value));
+        final Properties userProperties = new Properties();
+        userProperties.putAll(System.getProperties());
+
+        return CACHE_INFRASTRUCTURE_PATH.getValue(newBlankInstance(logger), systemProperties, userProperties)
+            .map(Paths::get)
+            .orElse(null);
     }
 }
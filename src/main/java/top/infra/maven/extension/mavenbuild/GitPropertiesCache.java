@@ -0,0 +1,235 @@
+package top.infra.maven.extension.mavenbuild;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.RevWalkUtils;
+
+import top.infra.maven.extension.mavenbuild.utils.FileUtils;
+import top.infra.maven.extension.mavenbuild.utils.SupportFunction;
+import top.infra.maven.logging.Logger;
+
+/**
+ * Persistent cache of git properties of a repository (under CACHE_INFRASTRUCTURE_PATH).
+ * <p/>
+ * Properties are keyed by HEAD object id and state (mtime and size) of HEAD, config and refs files.
+ * Commit counts are kept per commit, so count of a new HEAD can be derived from a cached ancestor.
+ */
+public class GitPropertiesCache {
+
+    static final String CACHE_KEY = "git.properties.cache.key";
+
+    private static final String FILE_COUNTS = "counts.properties";
+    private static final String FILE_PROPERTIES = "git.properties";
+    private static final String FILE_TAGS = "tags.properties";
+
+    /**
+     * Give up looking for a cached ancestor after walking this many commits.
+     */
+    private static final int MAX_ANCESTOR_DISTANCE = 10000;
+
+    /**
+     * Start over when counts file grows larger than this.
+     */
+    private static final int MAX_COUNTS = 1024;
+
+    private final Logger logger;
+
+    private final Path directory;
+
+    public GitPropertiesCache(final Logger logger, final Path cacheDirectory, final Repository repository) {
+        this.logger = logger;
+        final String gitDir = FileUtils.pathname(repository.getDirectory());
+        this.directory = cacheDirectory.resolve("git").resolve(SupportFunction.sha256(gitDir).substring(0, 16));
+    }
+
+    /**
+     * Key of current HEAD and refs state.
+     *
+     * @param repository repository
+     * @param head       HEAD
+     * @return key
+     */
+    public static String cacheKey(final Repository repository, final ObjectId head) {
+        final File gitDir = repository.getDirectory();
+        return head.name()
+            + ";HEAD=" + fileState(new File(gitDir, "HEAD"))
+            + ";config=" + fileState(new File(gitDir, "config"))
+            + ";" + tagsState(repository);
+    }
+
+    private static String tagsState(final Repository repository) {
+        final File gitDir = repository.getDirectory();
+        return "packed-refs=" + fileState(new File(gitDir, "packed-refs"))
+            + ";refs/tags=" + directoryState(new File(gitDir, "refs/tags"));
+    }
+
+    private static String fileState(final File file) {
+        return file.exists() ? file.lastModified() + ":" + file.length() : "-";
+    }
+
+    private static String directoryState(final File directory) {
+        final File[] files = directory.listFiles();
+        return files != null ? lastModified(directory) + ":" + files.length : "-";
+    }
+
+    private static long lastModified(final File directory) {
+        long result = directory.lastModified();
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                result = Math.max(result, file.isDirectory() ? lastModified(file) : file.lastModified());
+            }
+        }
+        return result;
+    }
+
+    public Optional<Map<String, String>> load(final String cacheKey) {
+        final Properties properties = this.read(FILE_PROPERTIES);
+        final Optional<Map<String, String>> result;
+        if (cacheKey.equals(properties.getProperty(CACHE_KEY))) {
+            final Map<String, String> map = new LinkedHashMap<>();
+            properties.stringPropertyNames().stream()
+                .filter(name -> !CACHE_KEY.equals(name))
+                .sorted()
+                .forEach(name -> map.put(name, properties.getProperty(name)));
+            result = Optional.of(map);
+        } else {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
+    public void save(final String cacheKey, final Map<String, String> map) {
+        final Properties properties = new Properties();
+        map.forEach((key, value) -> {
+            if (value != null) {
+                properties.setProperty(key, value);
+            }
+        });
+        properties.setProperty(CACHE_KEY, cacheKey);
+        this.write(FILE_PROPERTIES, properties);
+    }
+
+    /**
+     * Tag index of repository, rebuilt only if packed-refs or refs/tags changed.
+     *
+     * @param repository repository
+     * @return tag index
+     * @throws IOException on git error
+     */
+    public GitTagIndex tagIndex(final Repository repository) throws IOException {
+        final String tagsState = tagsState(repository);
+        final Properties properties = this.read(FILE_TAGS);
+
+        final GitTagIndex result;
+        if (tagsState.equals(properties.remove(CACHE_KEY))) {
+            result = GitTagIndex.fromProperties(properties);
+        } else {
+            result = GitTagIndex.of(repository);
+            final Properties toSave = result.toProperties();
+            toSave.setProperty(CACHE_KEY, tagsState);
+            this.write(FILE_TAGS, toSave);
+        }
+        return result;
+    }
+
+    /**
+     * Count commits reachable from head, derive from count of a cached ancestor if found.
+     *
+     * @param walk walk
+     * @param head head
+     * @return count
+     * @throws IOException on git error
+     */
+    public int count(final RevWalk walk, final RevCommit head) throws IOException {
+        final Properties counts = this.read(FILE_COUNTS);
+
+        final int result;
+        final String found = counts.getProperty(head.name());
+        if (found != null) {
+            result = Integer.parseInt(found);
+        } else {
+            final Optional<RevCommit> ancestor = this.cachedAncestor(walk, head, counts);
+            if (ancestor.isPresent()) {
+                final int ancestorCount = Integer.parseInt(counts.getProperty(ancestor.get().name()));
+                // ancestors of head = ancestors of ancestor + commits reachable from head but not from ancestor
+                result = ancestorCount + RevWalkUtils.count(walk, head, ancestor.get());
+                if (logger.isInfoEnabled()) {
+                    logger.info(String.format("GitProperties count derived from cached ancestor [%s]", ancestor.get().name()));
+                }
+            } else {
+                result = RevWalkUtils.count(walk, head, null);
+            }
+
+            if (counts.size() >= MAX_COUNTS) {
+                counts.clear();
+            }
+            counts.setProperty(head.name(), Integer.toString(result));
+            this.write(FILE_COUNTS, counts);
+        }
+        return result;
+    }
+
+    private Optional<RevCommit> cachedAncestor(final RevWalk walk, final RevCommit head, final Properties counts) throws IOException {
+        if (counts.isEmpty()) {
+            return Optional.empty();
+        }
+
+        walk.reset();
+        walk.markStart(head);
+        int distance = 0;
+        for (final RevCommit commit : walk) {
+            if (counts.containsKey(commit.name())) {
+                return Optional.of(commit);
+            }
+            if (++distance > MAX_ANCESTOR_DISTANCE) {
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Properties read(final String filename) {
+        final Properties properties = new Properties();
+        final Path path = this.directory.resolve(filename);
+        if (path.toFile().exists()) {
+            try (final InputStream inputStream = Files.newInputStream(path)) {
+                properties.load(inputStream);
+            } catch (final IOException | IllegalArgumentException ex) {
+                logger.warn(String.format("Error read git properties cache [%s]. %s", path, ex.getMessage()));
+                properties.clear();
+            }
+        }
+        return properties;
+    }
+
+    private void write(final String filename, final Properties properties) {
+        final Path path = this.directory.resolve(filename);
+        try {
+            Files.createDirectories(this.directory);
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            properties.store(outputStream, null);
+            FileUtils.writeFileAtomically(path, outputStream.toByteArray());
+        } catch (final IOException | RuntimeException ex) {
+            logger.warn(String.format("Error write git properties cache [%s]. %s", path, ex.getMessage()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.directory.toString();
+    }
+}
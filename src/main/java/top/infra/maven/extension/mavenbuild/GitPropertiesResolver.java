@@ -0,0 +1,302 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static org.eclipse.jgit.lib.Repository.shortenRefName;
+import static top.infra.maven.extension.mavenbuild.CiOption.GIT_REF_NAME;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryBuilder;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.RevWalkUtils;
+
+import top.infra.maven.logging.Logger;
+
+/**
+ * Computes git properties of current directory on demand, each property at most once.
+ * <p/>
+ * Repository is opened on first access, expensive properties (commit count, tag scan on detached HEAD)
+ * are computed only when asked for and persisted by {@link GitPropertiesCache} (if cache directory present).
+ * <p/>
+ * Newly computed properties are saved once on {@link #close()}, which also closes the repository.
+ * Closed automatically after all properties are served, reopened if a property is asked for after close.
+ */
+class GitPropertiesResolver implements AutoCloseable {
+
+    static final String GIT_BRANCH = "git.branch";
+    static final String GIT_BRANCH_FULL = "git.branch.full";
+    static final String GIT_BUILD_DATETIME_SIMPLE = "git.build.datetime.simple";
+    static final String GIT_COMMIT_COLOR_VALUE = "git.commit.color.value";
+    static final String GIT_COMMIT_ID = "git.commit.id";
+    static final String GIT_COMMIT_ID_ABBREV = "git.commit.id.abbrev";
+    static final String GIT_COUNT = "git.count";
+    static final String GIT_REF_NAME_FULL = "git.ref.name.full";
+    static final String GIT_REMOTE_ORIGIN_URL = "git.remote.origin.url";
+
+    static final List<String> NAMES = Collections.unmodifiableList(Arrays.asList(
+        GIT_BRANCH,
+        GIT_BRANCH_FULL,
+        GIT_REF_NAME.getPropertyName(),
+        GIT_REF_NAME_FULL,
+        GIT_COMMIT_ID,
+        GIT_COMMIT_ID_ABBREV,
+        GIT_COUNT,
+        GIT_COMMIT_COLOR_VALUE,
+        GIT_BUILD_DATETIME_SIMPLE,
+        GIT_REMOTE_ORIGIN_URL
+    ));
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final String GIT_PROPERTIES_LOG_FORMAT = "GitProperties %s='%s'";
+
+    private final Logger logger;
+
+    private final Path cacheDirectory;
+
+    private final Map<String, Optional<String>> resolved;
+
+    private boolean opened;
+    private Repository repository;
+    private ObjectId head;
+    private GitPropertiesCache cache;
+    private String cacheKey;
+    private Map<String, String> cached;
+    private boolean dirty;
+
+    /**
+     * Constructor.
+     *
+     * @param logger         logger
+     * @param cacheDirectory persist properties under this directory, nullable
+     */
+    GitPropertiesResolver(final Logger logger, final Path cacheDirectory) {
+        this.logger = logger;
+        this.cacheDirectory = cacheDirectory;
+        this.resolved = new LinkedHashMap<>();
+        this.opened = false;
+    }
+
+    /**
+     * Whether current directory is in a git repository.
+     *
+     * @return false if repository not found
+     */
+    synchronized boolean isRepositoryPresent() {
+        this.open();
+        return this.repository != null;
+    }
+
+    /**
+     * Get property, compute it on first access.
+     *
+     * @param name property name
+     * @return value, empty if not in a git repository or HEAD absent
+     */
+    synchronized Optional<String> getProperty(final String name) {
+        final Optional<String> found = this.resolved.get(name);
+        if (found != null) {
+            return found;
+        }
+
+        this.open();
+        final Optional<String> value;
+        if (this.head == null) {
+            value = Optional.empty();
+        } else if (this.cached.containsKey(name)) {
+            value = Optional.of(this.cached.get(name));
+        } else {
+            try {
+                value = this.resolve(name);
+            } catch (final IOException ex) {
+                logger.warn(String.format("Exception on resolve git property [%s].", name), ex);
+                return Optional.empty();
+            }
+            if (this.cache != null && value.isPresent() && !GIT_BUILD_DATETIME_SIMPLE.equals(name)) {
+                this.cached.put(name, value.get());
+                this.dirty = true;
+            }
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info(String.format(GIT_PROPERTIES_LOG_FORMAT, name, value.orElse("")));
+        }
+        this.resolved.put(name, value);
+        if (this.resolved.keySet().containsAll(NAMES)) {
+            // last property served
+            this.close();
+        }
+        return value;
+    }
+
+    /**
+     * Save newly computed properties into cache and close repository.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.dirty && this.cache != null) {
+            this.cache.save(this.cacheKey, this.cached);
+        }
+        this.dirty = false;
+
+        if (this.repository != null) {
+            this.repository.close();
+        }
+        this.opened = false;
+        this.repository = null;
+        this.head = null;
+    }
+
+    /**
+     * Compute all properties.
+     *
+     * @return properties, empty if not in a git repository
+     */
+    synchronized Optional<Map<String, String>> getProperties() {
+        final Optional<Map<String, String>> result;
+        if (this.isRepositoryPresent()) {
+            final Map<String, String> map = new LinkedHashMap<>();
+            if (this.head != null) {
+                NAMES.forEach(name -> map.put(name, this.getProperty(name).orElse(null)));
+            }
+            result = Optional.of(map);
+        } else {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
+    private void open() {
+        if (this.opened) {
+            return;
+        }
+        this.opened = true;
+        this.dirty = false;
+
+        try {
+            this.repository = new RepositoryBuilder()
+                .setWorkTree(new File("."))
+                .readEnvironment()
+                .findGitDir()
+                .setMustExist(true)
+                .build();
+
+            logger.debug("Using git repository: " + this.repository.getDirectory());
+
+            this.head = this.repository.resolve("HEAD");
+            if (this.head == null) {
+                logger.warn("No such revision: HEAD");
+                return;
+            }
+
+            this.cacheKey = GitPropertiesCache.cacheKey(this.repository, this.head);
+            this.cache = this.cacheDirectory != null ? new GitPropertiesCache(logger, this.cacheDirectory, this.repository) : null;
+            this.cached = this.cache != null
+                ? this.cache.load(this.cacheKey).orElseGet(LinkedHashMap::new)
+                : new LinkedHashMap<>();
+            if (!this.cached.isEmpty() && logger.isInfoEnabled()) {
+                logger.info(String.format("GitProperties found in cache [%s]", this.cache));
+            }
+        } catch (final IOException ex) {
+            logger.warn("Exception on open git repository.", ex);
+            if (this.repository != null) {
+                this.repository.close();
+            }
+            this.repository = null;
+            this.head = null;
+        }
+    }
+
+    private Optional<String> resolve(final String name) throws IOException {
+        final Optional<String> result;
+        switch (name) {
+            case GIT_BRANCH:
+                result = Optional.of(nullToEmpty(this.repository.getBranch()));
+                break;
+            case GIT_BRANCH_FULL:
+                result = Optional.of(nullToEmpty(this.repository.getFullBranch()));
+                break;
+            case GIT_REF_NAME_FULL:
+                result = Optional.of(this.refNameFull());
+                break;
+            case GIT_COMMIT_ID:
+                result = Optional.of(this.head.name());
+                break;
+            case GIT_COMMIT_ID_ABBREV:
+                try (final ObjectReader objectReader = this.repository.newObjectReader()) {
+                    result = Optional.of(objectReader.abbreviate(this.head).name());
+                }
+                break;
+            case GIT_COUNT:
+                try (final RevWalk walk = new RevWalk(this.repository)) {
+                    walk.setRetainBody(false);
+                    final RevCommit headCommit = walk.parseCommit(this.head);
+                    final int count = this.cache != null
+                        ? this.cache.count(walk, headCommit)
+                        : RevWalkUtils.count(walk, headCommit, null);
+                    result = Optional.of(Integer.toString(count));
+                }
+                break;
+            case GIT_COMMIT_COLOR_VALUE:
+                result = Optional.of(this.head.name().substring(0, 6));
+                break;
+            case GIT_BUILD_DATETIME_SIMPLE:
+                result = Optional.of(LocalDateTime.now().format(DATE_TIME_FORMATTER));
+                break;
+            case GIT_REMOTE_ORIGIN_URL:
+                result = Optional.ofNullable(this.repository.getConfig().getString("remote", "origin", "url"));
+                break;
+            default:
+                if (GIT_REF_NAME.getPropertyName().equals(name)) {
+                    final String refNameFull = this.getProperty(GIT_REF_NAME_FULL).orElse("");
+                    result = Optional.of(refNameFull.isEmpty() ? "" : shortenRefName(refNameFull));
+                } else {
+                    result = Optional.empty();
+                }
+                break;
+        }
+        return result;
+    }
+
+    /**
+     * `git symbolic-ref -q --short HEAD || git describe --tags --exact-match`.
+     *
+     * @return full ref name
+     * @throws IOException on git error
+     */
+    private String refNameFull() throws IOException {
+        final String result;
+        final String fullBranch = this.repository.getFullBranch();
+        if (fullBranch != null) {
+            final Ref fullBranchRef = this.repository.exactRef(fullBranch);
+            result = fullBranchRef != null ? fullBranchRef.getName() : "";
+        } else {
+            result = this.findTag(this.head).orElse("");
+        }
+        return result;
+    }
+
+    private Optional<String> findTag(final ObjectId objectId) throws IOException {
+        // annotated tags are indexed by peeled (commit) id
+        final GitTagIndex tagIndex = this.cache != null ? this.cache.tagIndex(this.repository) : GitTagIndex.of(this.repository);
+        final List<String> tags = tagIndex.tags(objectId);
+        return tags.isEmpty() ? Optional.empty() : Optional.of(tags.get(0));
+    }
+
+    private static String nullToEmpty(final String str) {
+        return (str == null ? "" : str);
+    }
+}
@@ -1,35 +1,45 @@
 package top.infra.maven.extension.mavenbuild;
 
 import static java.lang.Boolean.FALSE;
-import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.nio.file.StandardOpenOption.CREATE;
-import static java.nio.file.StandardOpenOption.SYNC;
-import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static top.infra.maven.extension.mavenbuild.CiOption.GIT_AUTH_TOKEN;
 import static top.infra.maven.extension.mavenbuild.Constants.GIT_REF_NAME_MASTER;
-import static top.infra.maven.extension.mavenbuild.utils.FileUtils.readFile;
-import static top.infra.maven.extension.mavenbuild.utils.FileUtils.writeFile;
-import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.isEmpty;
 import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.isNotEmpty;
 import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.newTuple;
 import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.newTupleOptional;
 
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Base64;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
-import org.json.JSONObject;
-
+import top.infra.exception.RuntimeIOException;
 import top.infra.maven.extension.mavenbuild.utils.DownloadUtils;
 import top.infra.maven.extension.mavenbuild.utils.DownloadUtils.DownloadException;
 import top.infra.maven.logging.Logger;
 
 public class GitRepository {
 
+    private static final String HEADER_GITLAB_BLOB_ID = "X-Gitlab-Blob-Id";
+
+    private static final String METADATA_BLOB_ID = "blob_id";
+    private static final String METADATA_ETAG = "etag";
+    private static final String METADATA_LAST_MODIFIED = "last_modified";
+    private static final String METADATA_URL = "url";
+
     private static final Pattern PATTERN_GITLAB_URL = Pattern.compile("^.+/api/v4/projects/[0-9]+/repository/.+$");
 
     private final Logger logger;
@@ -38,17 +48,84 @@ public class GitRepository {
     private final String repoRef;
     private final String token;
 
+    private final DownloadStore store;
+
     public GitRepository(
         final Logger logger,
         final String repo,
         final String repoRef,
         final String token
+    ) {
+        this(logger, repo, repoRef, token, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param logger         logger
+     * @param repo           repo url
+     * @param repoRef        ref, default master
+     * @param token          token, nullable
+     * @param cacheDirectory keep downloaded files and their response validators (ETag, Last-Modified, GitLab blob id)
+     *                       in a {@link DownloadStore} under it, nullable
+     */
+    public GitRepository(
+        final Logger logger,
+        final String repo,
+        final String repoRef,
+        final String token,
+        final Path cacheDirectory
     ) {
         this.logger = logger;
 
         this.repo = repo;
         this.repoRef = repoRef != null ? repoRef : GIT_REF_NAME_MASTER;
         this.token = token;
+        this.store = cacheDirectory != null ? new DownloadStore(logger, cacheDirectory) : null;
+    }
+
+    /**
+     * Download files concurrently, return once all of them finish.
+     * Throws the exception of first failed (in order of downloads) download.
+     *
+     * @param downloads downloads
+     * @param offline   offline
+     * @param update    update
+     */
+    public void download(final List<Download> downloads, final boolean offline, final boolean update) {
+        if (downloads.size() < 2) {
+            downloads.forEach(download -> this.download(
+                download.getSourceFile(), download.getTargetFile(), download.isReThrowException(), offline, update));
+            return;
+        }
+
+        final AtomicInteger counter = new AtomicInteger(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(downloads.size(), runnable -> {
+            final Thread thread = new Thread(runnable, String.format("git-repository-download-%d", counter.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<CompletableFuture<Void>> futures = new ArrayList<>(downloads.size());
+            downloads.forEach(download -> futures.add(CompletableFuture.runAsync(() -> this.download(
+                download.getSourceFile(), download.getTargetFile(), download.isReThrowException(), offline, update), executor)));
+
+            RuntimeException error = null;
+            for (final CompletableFuture<Void> future : futures) {
+                try {
+                    future.join();
+                } catch (final CompletionException ex) {
+                    if (error == null) {
+                        error = ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : ex;
+                    }
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        } finally {
+            executor.shutdown();
+        }
     }
 
     public void download(
@@ -59,20 +136,36 @@ public class GitRepository {
         final boolean update
     ) {
         final boolean doDownload;
+        // a cheap conditional request, if validators of stored file are known
+        final boolean doRevalidate;
 
+        final Optional<DownloadStore.StoreEntry> entry = this.storeEntry(sourceFile);
         final boolean targetFileExists = Paths.get(targetFile).toFile().exists();
         if (update) {
             doDownload = true;
+            doRevalidate = false;
         } else {
             if (!targetFileExists) {
                 doDownload = !offline;
+                doRevalidate = false;
             } else {
                 doDownload = false;
+                doRevalidate = !offline && entry.map(it -> it.hasContent() && hasValidators(it.readMetadata())).orElse(FALSE);
             }
         }
 
         if (doDownload) {
             this.download(sourceFile, targetFile, reThrowException);
+        } else if (doRevalidate) {
+            // keep local target file on error
+            this.download(sourceFile, targetFile, false);
+        } else if (offline && !targetFileExists && entry.map(DownloadStore.StoreEntry::hasContent).orElse(FALSE)) {
+            logger.info(String.format("Local target file [%s] does not exists, use stored [%s] (offline).", targetFile, entry.get()));
+            try {
+                entry.get().publish(Paths.get(targetFile));
+            } catch (final IOException ex) {
+                throw new RuntimeIOException(String.format("Error copy [%s] to [%s].", entry.get(), targetFile), ex);
+            }
         } else {
             if (targetFileExists) {
                 logger.info(String.format("Local target file [%s] already exists, skip download unless option '-U' is used.", targetFile));
@@ -109,7 +202,7 @@ public class GitRepository {
 
         final Optional<Integer> status = result.getValue().getKey();
         final Optional<Exception> error = result.getValue().getValue();
-        final boolean is2xxStatus = status.map(DownloadUtils::is2xxStatus).orElse(FALSE);
+        final boolean is2xxStatus = status.map(GitRepository::isSuccess).orElse(FALSE);
         final boolean is404Status = status.map(DownloadUtils::is404Status).orElse(FALSE);
 
         if (error.isPresent() || !is2xxStatus) {
@@ -143,7 +236,7 @@ public class GitRepository {
         final String sourceFile,
         final String targetFile
     ) {
-        final Entry<Optional<Integer>, Optional<Exception>> statusOrException;
+        Entry<Optional<Integer>, Optional<Exception>> statusOrException;
 
         final String fromUrl;
 
@@ -155,40 +248,49 @@ public class GitRepository {
 
             final String sourceFilePath = sourceFile.startsWith("/") ? sourceFile.substring(1) : sourceFile;
 
-            final Optional<Integer> status;
-            if (PATTERN_GITLAB_URL.matcher(this.repo).matches()) {
+            final boolean gitlab = PATTERN_GITLAB_URL.matcher(this.repo).matches();
+            if (gitlab) {
                 fromUrl = (this.repo.endsWith("/") ? this.repo : this.repo + "/")
                     + sourceFilePath.replaceAll("/", "%2F") + "?ref=" + this.repoRef;
-                final String saveToFile = targetFile + ".json";
-                statusOrException = DownloadUtils.download(logger, fromUrl, saveToFile, headers, 3);
-                status = statusOrException.getKey();
+            } else {
+                fromUrl = (this.repo.endsWith("/") ? this.repo.substring(0, this.repo.length() - 1) : this.repo)
+                    + "/raw/" + this.repoRef + "/" + sourceFilePath;
+            }
 
-                final boolean is2xxStatus = status.map(DownloadUtils::is2xxStatus).orElse(FALSE);
-                if (is2xxStatus) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug(String.format("decode [%s]", saveToFile));
+            final Optional<DownloadStore.StoreEntry> entry = this.storeEntry(sourceFile);
+            if (entry.isPresent()) {
+                // single-flight, reuse the entry if another thread or process fetched it while we were waiting
+                final long requested = System.currentTimeMillis();
+                statusOrException = entry.get().withLock(() -> {
+                    if (entry.get().fetchedSince(requested)) {
+                        logger.info(String.format("Reuse [%s] just fetched into [%s].", fromUrl, entry.get()));
+                        return newTupleOptional(HttpURLConnection.HTTP_NOT_MODIFIED, null);
+                    }
+                    final Properties metadata = entry.get().readMetadata();
+                    // validators are valid only if stored content is downloaded from same url
+                    if (!fromUrl.equals(metadata.getProperty(METADATA_URL)) || !entry.get().hasContent()) {
+                        metadata.clear();
                     }
-                    // cat "${target_file}.json" | jq -r ".content" | base64 --decode | tee "${target_file}"
-                    final JSONObject jsonFile = new JSONObject(readFile(Paths.get(saveToFile), UTF_8).orElse("{\"content\": \"\"}"));
-                    final String content = jsonFile.getString("content");
-                    if (!isEmpty(content)) {
-                        final byte[] bytes = Base64.getDecoder().decode(content);
-                        if (logger.isDebugEnabled()) {
-                            logger.debug(String.format("Write content into targetFile [%s] (%s bytes)", targetFile, bytes.length));
-                        }
-                        writeFile(Paths.get(targetFile), bytes, CREATE, SYNC, TRUNCATE_EXISTING);
-                    } else {
-                        if (logger.isDebugEnabled()) {
-                            logger.debug(String.format("Content is empty. Skip write content into targetFile [%s]", targetFile));
-                        }
+                    final Entry<Optional<Integer>, Optional<Exception>> fetched = this.fetch(
+                        fromUrl, gitlab, headers, entry.get().getContent(), metadata);
+                    if (!fetched.getValue().isPresent() && fetched.getKey().map(GitRepository::isSuccess).orElse(FALSE)) {
+                        entry.get().writeMetadata(metadata);
+                    }
+                    return fetched;
+                });
+
+                final boolean success = statusOrException.getKey().map(GitRepository::isSuccess).orElse(FALSE);
+                if (!statusOrException.getValue().isPresent() && success && entry.get().hasContent()) {
+                    try {
+                        entry.get().publish(Paths.get(targetFile));
+                    } catch (final IOException ex) {
+                        statusOrException = newTupleOptional(statusOrException.getKey().orElse(null), ex);
                     }
                 }
             } else {
-                fromUrl = (this.repo.endsWith("/") ? this.repo.substring(0, this.repo.length() - 1) : this.repo)
-                    + "/raw/" + this.repoRef + "/" + sourceFilePath;
-                statusOrException = DownloadUtils.download(logger, fromUrl, targetFile, headers, 3);
-                status = statusOrException.getKey();
+                statusOrException = this.fetch(fromUrl, gitlab, headers, Paths.get(targetFile), new Properties());
             }
+            final Optional<Integer> status = statusOrException.getKey();
 
             final boolean hasError = statusOrException.getValue().isPresent();
             if (hasError) {
@@ -211,4 +313,136 @@ public class GitRepository {
 
         return newTuple(Optional.ofNullable(fromUrl), statusOrException);
     }
+
+    /**
+     * Download fromUrl into saveToFile, conditionally if validators in metadata.
+     *
+     * @param fromUrl    url
+     * @param gitlab     GitLab files API
+     * @param headers    request headers
+     * @param saveToFile target local file
+     * @param metadata   validators of saveToFile, updated on success
+     * @return tuple(status, exception)
+     */
+    private Entry<Optional<Integer>, Optional<Exception>> fetch(
+        final String fromUrl,
+        final boolean gitlab,
+        final Map<String, String> headers,
+        final Path saveToFile,
+        final Properties metadata
+    ) {
+        final Map<String, String> conditionalHeaders = new LinkedHashMap<>(headers);
+        if (metadata.getProperty(METADATA_ETAG) != null) {
+            conditionalHeaders.put(DownloadUtils.HEADER_IF_NONE_MATCH, metadata.getProperty(METADATA_ETAG));
+        }
+        if (metadata.getProperty(METADATA_LAST_MODIFIED) != null) {
+            conditionalHeaders.put(DownloadUtils.HEADER_IF_MODIFIED_SINCE, metadata.getProperty(METADATA_LAST_MODIFIED));
+        }
+        final Map<String, String> responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        final Entry<Optional<Integer>, Optional<Exception>> statusOrException;
+        if (gitlab && this.blobUnchanged(fromUrl, headers, metadata)) {
+            // GitLab files API does not honor conditional headers, compare blob id instead
+            statusOrException = newTupleOptional(HttpURLConnection.HTTP_NOT_MODIFIED, null);
+        } else if (gitlab) {
+            // `jq -r ".content" | base64 --decode`, streaming into saveToFile
+            final Map<String, String> fields = new LinkedHashMap<>();
+            statusOrException = DownloadUtils.download(
+                logger, fromUrl, saveToFile.toString(), conditionalHeaders, 3, responseHeaders, (body, target) -> {
+                    final long length = GitLabFileDecoder.decode(body, target, fields);
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(length > 0
+                            ? String.format("Write content into [%s] (%s bytes)", saveToFile, length)
+                            : String.format("Content is empty. Skip write content into [%s]", saveToFile));
+                    }
+                    return length > 0;
+                });
+
+            if (fields.containsKey(METADATA_BLOB_ID) && !responseHeaders.containsKey(HEADER_GITLAB_BLOB_ID)) {
+                responseHeaders.put(HEADER_GITLAB_BLOB_ID, fields.get(METADATA_BLOB_ID));
+            }
+        } else {
+            statusOrException = DownloadUtils.download(logger, fromUrl, saveToFile.toString(), conditionalHeaders, 3, responseHeaders);
+        }
+
+        final Optional<Integer> status = statusOrException.getKey();
+        if (status.map(DownloadUtils::is304Status).orElse(FALSE)) {
+            logger.info(String.format("[%s] is up to date (not modified).", saveToFile));
+        } else if (status.map(DownloadUtils::is2xxStatus).orElse(FALSE) && !statusOrException.getValue().isPresent()) {
+            metadata.clear();
+            metadata.setProperty(METADATA_URL, fromUrl);
+            Optional.ofNullable(responseHeaders.get(DownloadUtils.HEADER_ETAG))
+                .ifPresent(value -> metadata.setProperty(METADATA_ETAG, value));
+            Optional.ofNullable(responseHeaders.get(DownloadUtils.HEADER_LAST_MODIFIED))
+                .ifPresent(value -> metadata.setProperty(METADATA_LAST_MODIFIED, value));
+            Optional.ofNullable(responseHeaders.get(HEADER_GITLAB_BLOB_ID))
+                .ifPresent(value -> metadata.setProperty(METADATA_BLOB_ID, value));
+        }
+        return statusOrException;
+    }
+
+    private boolean blobUnchanged(final String fromUrl, final Map<String, String> headers, final Properties metadata) {
+        final String blobId = metadata.getProperty(METADATA_BLOB_ID);
+        final boolean result;
+        if (blobId != null) {
+            final Map<String, String> responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            final Entry<Optional<Integer>, Optional<Exception>> statusOrException = DownloadUtils.head(
+                logger, fromUrl, headers, responseHeaders);
+            result = statusOrException.getKey().map(DownloadUtils::is2xxStatus).orElse(FALSE)
+                && blobId.equals(responseHeaders.get(HEADER_GITLAB_BLOB_ID));
+        } else {
+            result = false;
+        }
+        return result;
+    }
+
+    private static boolean isSuccess(final Integer status) {
+        // 304: local content is up to date
+        return DownloadUtils.is2xxStatus(status) || DownloadUtils.is304Status(status);
+    }
+
+    private static boolean hasValidators(final Properties metadata) {
+        return metadata.getProperty(METADATA_ETAG) != null
+            || metadata.getProperty(METADATA_LAST_MODIFIED) != null
+            || metadata.getProperty(METADATA_BLOB_ID) != null;
+    }
+
+    private Optional<DownloadStore.StoreEntry> storeEntry(final String sourceFile) {
+        final String sourceFilePath = sourceFile.startsWith("/") ? sourceFile.substring(1) : sourceFile;
+        return this.store != null && isNotEmpty(this.repo)
+            ? Optional.of(this.store.entry(this.repo, this.repoRef, sourceFilePath))
+            : Optional.empty();
+    }
+
+    public static class Download {
+
+        private final String sourceFile;
+        private final String targetFile;
+        private final boolean reThrowException;
+
+        /**
+         * Constructor.
+         *
+         * @param sourceFile       relative path in git repository
+         * @param targetFile       target local file
+         * @param reThrowException re-throw exception
+         */
+        public Download(final String sourceFile, final String targetFile, final boolean reThrowException) {
+            this.sourceFile = sourceFile;
+            this.targetFile = targetFile;
+            this.reThrowException = reThrowException;
+        }
+
+        public String getSourceFile() {
+            return this.sourceFile;
+        }
+
+        public String getTargetFile() {
+            return this.targetFile;
+        }
+
+        public boolean isReThrowException() {
+            return this.reThrowException;
+        }
+    }
 }
@@ -0,0 +1,171 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Peeled object id to tag names index.
+ * <p/>
+ * Read from packed-refs directly (peeled ids of annotated tags are recorded in '^' lines)
+ * and loose refs under refs/tags (peeled by object database), loose refs override packed ones.
+ */
+public class GitTagIndex {
+
+    private static final String PACKED_REFS_PEELED = " peeled";
+
+    private final Map<String, List<String>> tagsByObjectId;
+
+    GitTagIndex(final Map<String, List<String>> tagsByObjectId) {
+        this.tagsByObjectId = tagsByObjectId;
+    }
+
+    /**
+     * Build index from ref database of repository.
+     *
+     * @param repository repository
+     * @return index
+     * @throws IOException on error reading refs or objects
+     */
+    public static GitTagIndex of(final Repository repository) throws IOException {
+        // tag name to peeled object id
+        final Map<String, ObjectId> tags = new TreeMap<>();
+        final Map<String, ObjectId> unpeeled = new TreeMap<>();
+
+        final File gitDir = repository.getDirectory();
+        readPackedRefs(new File(gitDir, Constants.PACKED_REFS), tags, unpeeled);
+        readLooseRefs(new File(gitDir, Constants.R_TAGS), Constants.R_TAGS, tags, unpeeled);
+
+        if (!unpeeled.isEmpty()) {
+            try (final RevWalk walk = new RevWalk(repository)) {
+                for (final Map.Entry<String, ObjectId> entry : unpeeled.entrySet()) {
+                    try {
+                        final RevObject peeled = walk.peel(walk.parseAny(entry.getValue()));
+                        tags.put(entry.getKey(), peeled.getId());
+                    } catch (final MissingObjectException ex) {
+                        tags.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        }
+
+        final Map<String, List<String>> index = new HashMap<>();
+        tags.forEach((name, id) -> index.computeIfAbsent(id.name(), key -> new ArrayList<>()).add(name));
+        return new GitTagIndex(index);
+    }
+
+    private static void readPackedRefs(
+        final File packedRefs,
+        final Map<String, ObjectId> tags,
+        final Map<String, ObjectId> unpeeled
+    ) throws IOException {
+        if (!packedRefs.exists()) {
+            return;
+        }
+
+        boolean peeledTrait = false;
+        String last = null;
+        for (final String line : Files.readAllLines(packedRefs.toPath(), UTF_8)) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (line.charAt(0) == '#') {
+                // '# pack-refs with: peeled fully-peeled sorted'
+                peeledTrait = peeledTrait || line.startsWith("# pack-refs with:") && (line + " ").contains(PACKED_REFS_PEELED + " ");
+            } else if (line.charAt(0) == '^') {
+                if (last != null) {
+                    tags.put(last, ObjectId.fromString(line.substring(1, Constants.OBJECT_ID_STRING_LENGTH + 1)));
+                    unpeeled.remove(last);
+                }
+            } else {
+                final int space = line.indexOf(' ');
+                final String name = space > 0 ? line.substring(space + 1) : "";
+                if (name.startsWith(Constants.R_TAGS)) {
+                    final ObjectId id = ObjectId.fromString(line.substring(0, space));
+                    tags.put(name, id);
+                    if (!peeledTrait) {
+                        // without peeled trait, absence of '^' line does not mean it is not an annotated tag
+                        unpeeled.put(name, id);
+                    }
+                    last = name;
+                } else {
+                    last = null;
+                }
+            }
+        }
+    }
+
+    private static void readLooseRefs(
+        final File directory,
+        final String prefix,
+        final Map<String, ObjectId> tags,
+        final Map<String, ObjectId> unpeeled
+    ) throws IOException {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (final File file : files) {
+            final String name = prefix + file.getName();
+            if (file.isDirectory()) {
+                readLooseRefs(file, name + "/", tags, unpeeled);
+            } else {
+                final String content = new String(Files.readAllBytes(file.toPath()), UTF_8).trim();
+                if (ObjectId.isId(content)) {
+                    final ObjectId id = ObjectId.fromString(content);
+                    tags.put(name, id);
+                    unpeeled.put(name, id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tags point to (peeled) object id.
+     *
+     * @param objectId object id (e.g. HEAD commit)
+     * @return full tag names, sorted
+     */
+    public List<String> tags(final ObjectId objectId) {
+        return Collections.unmodifiableList(this.tagsByObjectId.getOrDefault(objectId.name(), Collections.emptyList()));
+    }
+
+    public int size() {
+        return this.tagsByObjectId.size();
+    }
+
+    public Properties toProperties() {
+        final Properties properties = new Properties();
+        this.tagsByObjectId.forEach((id, names) -> properties.setProperty(id, String.join(" ", names)));
+        return properties;
+    }
+
+    public static GitTagIndex fromProperties(final Properties properties) {
+        final Map<String, List<String>> index = new LinkedHashMap<>();
+        properties.stringPropertyNames().forEach(id -> {
+            final List<String> names = new ArrayList<>();
+            // space is not allowed in ref names
+            Collections.addAll(names, properties.getProperty(id).split(" "));
+            index.put(id, names);
+        });
+        return new GitTagIndex(index);
+    }
+}
@@ -53,7 +53,7 @@ public class Gpg {
     private final String passphrase;
 
     private final String[] cmd;
-    private final Map<String, String> environment;
+    private Map<String, String> environment;
 
     public Gpg(
         final Logger logger,
@@ -75,17 +75,25 @@ public class Gpg {
         if (logger.isInfoEnabled()) {
             logger.info(String.format("Using %s", Arrays.toString(this.cmd)));
         }
+    }
 
-        final Map<String, String> env = new LinkedHashMap<>();
-        env.put("LC_CTYPE", "UTF-8");
-        final Entry<Integer, String> tty = SystemUtils.exec("tty");
-        if (tty.getKey() == 0) {
-            if (logger.isInfoEnabled()) {
-                logger.info(String.format("GPG_TTY=%s", tty.getValue()));
+    /**
+     * Environment of gpg processes, 'tty' is spawned only when the first gpg process is.
+     */
+    private Map<String, String> environment() {
+        if (this.environment == null) {
+            final Map<String, String> env = new LinkedHashMap<>();
+            env.put("LC_CTYPE", "UTF-8");
+            final Entry<Integer, String> tty = SystemUtils.exec("tty");
+            if (tty.getKey() == 0) {
+                if (logger.isInfoEnabled()) {
+                    logger.info(String.format("GPG_TTY=%s", tty.getValue()));
+                }
+                env.put("GPG_TTY", tty.getValue());
             }
-            env.put("GPG_TTY", tty.getValue());
+            this.environment = Collections.unmodifiableMap(env);
         }
-        this.environment = Collections.unmodifiableMap(env);
+        return this.environment;
     }
 
     static boolean gpgVersionGreater(
@@ -111,11 +119,16 @@ public class Gpg {
         final boolean encryptedKeysPresent = this.isFilePresent(CODESIGNING_ASC_ENC) || this.isFilePresent(CODESIGNING_ASC_GPG);
 
         if (encryptedKeysPresent) {
+            final GpgKeyringState state = new GpgKeyringState(this.logger, Paths.get(this.homeDir, DOT_GNUPG));
+            final Optional<String> inputs = this.stateInputs();
+            if (inputs.isPresent() && state.matches(inputs.get())) {
+                logger.info("gpg keyring and config match recorded state, skip decrypt and import keys.");
+                return;
+            }
+
             // config gpg (version > 2.1)
             this.configFile();
-        }
 
-        if (encryptedKeysPresent) {
             this.gpgFindPrivateKey(this.keyName).ifPresent(privateKeyFound -> {
                 if (!isEmpty(this.passphrase) && !privateKeyFound) {
                     // decrypt gpg key
@@ -127,10 +140,45 @@ public class Gpg {
 
                     this.importPrivateKeys();
                 }
+
+                if (inputs.isPresent() && (privateKeyFound || this.gpgFindPrivateKey(this.keyName).orElse(false))) {
+                    state.save(inputs.get());
+                }
             });
         }
     }
 
+    /**
+     * Fingerprint of everything decrypt and import depend on: key files, key id, key name and gpg executable.
+     * The executable's path, size and last modified stand for gpg version (no 'gpg --version' process).
+     *
+     * @return fingerprint, empty if any input is unreadable
+     */
+    private Optional<String> stateInputs() {
+        final Optional<Path> executable = SystemUtils.findInPath(this.cmd[0]);
+        if (!executable.isPresent()) {
+            return Optional.empty();
+        }
+
+        final StringBuilder inputs = new StringBuilder();
+        try {
+            inputs.append(String.format("cmd=%s%n", Arrays.toString(this.cmd)));
+            inputs.append(String.format("executable=%s:%s:%s%n", executable.get().toRealPath(),
+                Files.size(executable.get()), Files.getLastModifiedTime(executable.get()).toMillis()));
+            inputs.append(String.format("keyId=%s%nkeyName=%s%npassphrase=%s%n", this.keyId, this.keyName, !isEmpty(this.passphrase)));
+            for (final String file : Arrays.asList(CODESIGNING_PUB, CODESIGNING_ASC_ENC, CODESIGNING_ASC_GPG)) {
+                if (this.isFilePresent(file)) {
+                    final byte[] bytes = Files.readAllBytes(Paths.get(this.workingDir, file));
+                    inputs.append(String.format("%s=%s%n", file, SupportFunction.sha256(bytes)));
+                }
+            }
+        } catch (final IOException ex) {
+            logger.warn(String.format("Error fingerprint gpg inputs. %s", ex.getMessage()));
+            return Optional.empty();
+        }
+        return Optional.of(inputs.toString());
+    }
+
     public void configFile() {
         // use --batch=true to avoid 'gpg tty not a tty' error
         final Entry<Integer, String> resultGpgVersion = this.exec(this.cmdGpgBatch("--version"));
@@ -156,37 +204,46 @@ public class Gpg {
                     logger.warn(String.format("%s%n%s", ex.getMessage(), stackTrace(ex)));
                 }
             }
-            logger.info("add 'use-agent' to '~/.gnupg/gpg.conf'");
-            writeFile(dotGnupgGpgConf, "use-agent\n".getBytes(UTF_8),
-                StandardOpenOption.CREATE, StandardOpenOption.SYNC, StandardOpenOption.TRUNCATE_EXISTING);
-            if (logger.isInfoEnabled()) {
-                logger.info(readFile(dotGnupgGpgConf, UTF_8).orElse(""));
-            }
-
-            if (gpgVersionGreater(resultGpgVersion.getValue(), "2.2")) {
-                // on gpg-2.1.11 'pinentry-mode loopback' is invalid option
-                logger.info("add 'pinentry-mode loopback' to '~/.gnupg/gpg.conf'");
-                writeFile(dotGnupgGpgConf, "pinentry-mode loopback\n".getBytes(UTF_8),
-                    StandardOpenOption.APPEND, StandardOpenOption.SYNC);
-                if (logger.isInfoEnabled()) {
-                    logger.info(readFile(dotGnupgGpgConf, UTF_8).orElse(""));
-                }
-            }
+            // on gpg-2.1.11 'pinentry-mode loopback' is invalid option
+            final String gpgConf = gpgVersionGreater(resultGpgVersion.getValue(), "2.2")
+                ? "use-agent\npinentry-mode loopback\n"
+                : "use-agent\n";
+            logger.info(String.format("write %s to '~/.gnupg/gpg.conf'", lines(gpgConf)));
+            final boolean gpgConfChanged = writeFileIfChanged(dotGnupgGpgConf, gpgConf);
             // gpg_cmd="${gpg_cmd} --pinentry-mode loopback"
             // export GPG_OPTS='--pinentry-mode loopback'
             // echo GPG_OPTS: ${GPG_OPTS}
 
             logger.info("add 'allow-loopback-pinentry' to '~/.gnupg/gpg-agent.conf'");
             final Path dotGnupgGpgAgentConf = Paths.get(homeDir, DOT_GNUPG, "gpg-agent.conf");
-            writeFile(dotGnupgGpgAgentConf, "allow-loopback-pinentry\n".getBytes(UTF_8),
-                StandardOpenOption.CREATE, StandardOpenOption.SYNC, StandardOpenOption.TRUNCATE_EXISTING);
-            if (logger.isInfoEnabled()) {
-                logger.info(readFile(dotGnupgGpgAgentConf, UTF_8).orElse(""));
+            final boolean gpgAgentConfChanged = writeFileIfChanged(dotGnupgGpgAgentConf, "allow-loopback-pinentry\n");
+
+            if (gpgConfChanged || gpgAgentConfChanged) {
+                logger.info("restart the agent");
+                this.exec("RELOADAGENT", singletonList("gpg-connect-agent"));
+            } else {
+                logger.info("gpg config not changed, skip restart the agent");
             }
+        }
+    }
 
-            logger.info("restart the agent");
-            this.exec("RELOADAGENT", singletonList("gpg-connect-agent"));
+    /**
+     * Write file only if its content differs (avoid SYNC writes and agent restarts on unchanged config).
+     *
+     * @param path    file
+     * @param content content
+     * @return changed
+     */
+    private boolean writeFileIfChanged(final Path path, final String content) {
+        final boolean changed = !exists(path) || !readFile(path, UTF_8).map(content::equals).orElse(false);
+        if (changed) {
+            writeFile(path, content.getBytes(UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.SYNC, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info(readFile(path, UTF_8).orElse(""));
         }
+        return changed;
     }
 
     public void decryptKey() {
@@ -297,7 +354,7 @@ public class Gpg {
     }
 
     private Map.Entry<Integer, String> exec(final String stdIn, final List<String> command) {
-        return SystemUtils.exec(this.environment, stdIn, command);
+        return SystemUtils.exec(this.environment(), stdIn, command);
     }
 
     public Optional<Boolean> gpgFindPrivateKey(final String keyName) {
@@ -6,6 +6,8 @@ import static top.infra.maven.extension.mavenbuild.CiOption.GPG_KEYNAME;
 import static top.infra.maven.extension.mavenbuild.CiOption.GPG_PASSPHRASE;
 import static top.infra.maven.extension.mavenbuild.CiOption.rootProjectPathname;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import javax.inject.Inject;
@@ -40,6 +42,11 @@ public class GpgEventAware implements MavenEventAware {
         return ORDER_GPG;
     }
 
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Collections.singletonList(CiOptionEventAware.class));
+    }
+
     @Override
     public void onProjectBuildingRequest(
         final MavenExecutionRequest mavenExecution,
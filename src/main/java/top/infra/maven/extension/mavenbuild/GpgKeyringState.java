@@ -0,0 +1,102 @@
+package top.infra.maven.extension.mavenbuild;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import top.infra.exception.RuntimeIOException;
+import top.infra.maven.extension.mavenbuild.utils.FileUtils;
+import top.infra.maven.extension.mavenbuild.utils.SupportFunction;
+import top.infra.maven.logging.Logger;
+
+/**
+ * State of keys imported into ~/.gnupg, recorded after a successful decrypt and import.
+ * <p/>
+ * The state holds a fingerprint of the inputs (encrypted key files, key name, gpg executable)
+ * and a stamp (size and last modified) of keyring and config files as they were after import.
+ * Decrypt and import can be skipped while both match, without spawning any gpg process.
+ */
+final class GpgKeyringState {
+
+    private static final String FILE_STATE = "maven-build-extension.state";
+
+    private static final String KEY_INPUTS = "inputs";
+    private static final String KEY_KEYRING = "keyring";
+
+    /**
+     * Keyring and config files gpg (1.x and 2.x) writes on import.
+     */
+    private static final List<String> KEYRING_FILES = Arrays.asList(
+        "gpg.conf", "gpg-agent.conf", "pubring.gpg", "pubring.kbx", "secring.gpg", "trustdb.gpg", "private-keys-v1.d");
+
+    private final Logger logger;
+
+    private final Path dotGnupg;
+
+    GpgKeyringState(final Logger logger, final Path dotGnupg) {
+        this.logger = logger;
+        this.dotGnupg = dotGnupg;
+    }
+
+    /**
+     * Whether keyring still holds keys imported from inputs.
+     *
+     * @param inputs fingerprint of inputs
+     * @return matches
+     */
+    boolean matches(final String inputs) {
+        final Path file = this.dotGnupg.resolve(FILE_STATE);
+        if (!file.toFile().exists()) {
+            return false;
+        }
+
+        final Properties properties = new Properties();
+        try (final InputStream inputStream = Files.newInputStream(file)) {
+            properties.load(inputStream);
+        } catch (final IOException | IllegalArgumentException ex) {
+            logger.warn(String.format("Error read gpg keyring state [%s]. %s", file, ex.getMessage()));
+            return false;
+        }
+        return SupportFunction.sha256(inputs).equals(properties.getProperty(KEY_INPUTS))
+            && this.keyring().equals(properties.getProperty(KEY_KEYRING));
+    }
+
+    /**
+     * Record keyring state after keys imported from inputs.
+     *
+     * @param inputs fingerprint of inputs
+     */
+    void save(final String inputs) {
+        final Path file = this.dotGnupg.resolve(FILE_STATE);
+        final Properties properties = new Properties();
+        properties.setProperty(KEY_INPUTS, SupportFunction.sha256(inputs));
+        properties.setProperty(KEY_KEYRING, this.keyring());
+        try {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            properties.store(outputStream, null);
+            FileUtils.writeFileAtomically(file, outputStream.toByteArray());
+        } catch (final IOException | RuntimeIOException ex) {
+            logger.warn(String.format("Error write gpg keyring state [%s]. %s", file, ex.getMessage()));
+        }
+    }
+
+    private String keyring() {
+        final StringBuilder stamp = new StringBuilder();
+        for (final String name : KEYRING_FILES) {
+            final Path path = this.dotGnupg.resolve(name);
+            stamp.append(name).append('=');
+            try {
+                stamp.append(Files.size(path)).append(':').append(Files.getLastModifiedTime(path).toMillis());
+            } catch (final IOException ex) {
+                stamp.append("absent");
+            }
+            stamp.append('\n');
+        }
+        return SupportFunction.sha256(stamp.toString());
+    }
+}
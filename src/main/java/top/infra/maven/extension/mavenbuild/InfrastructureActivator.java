@@ -5,9 +5,9 @@ import static top.infra.maven.extension.mavenbuild.CiOption.INFRASTRUCTURE;
 import static top.infra.maven.extension.mavenbuild.utils.MavenUtils.profileId;
 import static top.infra.maven.extension.mavenbuild.utils.MavenUtils.projectName;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -28,8 +28,6 @@ import top.infra.maven.extension.mavenbuild.model.ProjectBuilderActivatorModelRe
 @Singleton
 public class InfrastructureActivator extends AbstractCustomActivator implements MavenEventAware {
 
-    private static final Pattern PATTERN_INFRASTRUCTURE_PROFILE = Pattern.compile(".*infrastructure_(\\w+)[-]?.*");
-
     private final CiOptionEventAware ciOptsFactory;
 
     private CiOptionAccessor ciOpts;
@@ -55,6 +53,33 @@ public class InfrastructureActivator extends AbstractCustomActivator implements
         return true;
     }
 
+    /**
+     * A {@link AbstractCustomActivator} method.
+     * <p/>
+     * Decided by ciOpts, model is not read.
+     *
+     * @return no model properties
+     */
+    @Override
+    protected Optional<List<String>> modelProperties() {
+        return Optional.of(Collections.emptyList());
+    }
+
+    /**
+     * A {@link AbstractCustomActivator} method.
+     * <p/>
+     * Decision depends on infrastructure option only (if project present).
+     *
+     * @param profile profile
+     * @param context context
+     * @return inputs of decision
+     */
+    @Override
+    protected Optional<String> decisionInputs(final Profile profile, final ProfileActivationContext context) {
+        return this.rawModel(context, Collections.emptyList())
+            .map(model -> String.format("infrastructure=%s", this.ciOpts.getOption(INFRASTRUCTURE).orElse("")));
+    }
+
     /**
      * A {@link AbstractCustomActivator} method.
      * <p/>
@@ -77,6 +102,16 @@ public class InfrastructureActivator extends AbstractCustomActivator implements
         return Integer.MAX_VALUE; // make sure instance of InfrastructureActivator runs after bean factory of ciOpts
     }
 
+    /**
+     * A {@link MavenEventAware} method.
+     *
+     * @return dependencies of this {@link MavenEventAware} instance.
+     */
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Collections.singletonList(CiOptionEventAware.class));
+    }
+
     /**
      * A abstract method declared in {@link AbstractCustomActivator}.
      * <p/>
@@ -144,15 +179,6 @@ public class InfrastructureActivator extends AbstractCustomActivator implements
     }
 
     static Optional<String> profileInfrastructure(final String id) {
-        final Optional<String> result;
-
-        final Matcher matcher = PATTERN_INFRASTRUCTURE_PROFILE.matcher(id);
-        if (matcher.matches()) {
-            result = Optional.of(matcher.group(1));
-        } else {
-            result = Optional.empty();
-        }
-
-        return result;
+        return ProfileIdClassifier.classify(id).getInfrastructure();
     }
 }
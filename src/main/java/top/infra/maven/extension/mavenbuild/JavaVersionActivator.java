@@ -3,14 +3,11 @@ package top.infra.maven.extension.mavenbuild;
 import static java.lang.Integer.parseInt;
 import static top.infra.maven.extension.mavenbuild.utils.MavenUtils.profileId;
 import static top.infra.maven.extension.mavenbuild.utils.MavenUtils.projectName;
-import static top.infra.maven.extension.mavenbuild.utils.PropertiesUtils.mapFromProperties;
 import static top.infra.maven.extension.mavenbuild.utils.SystemUtils.parseJavaVersion;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.inject.Inject;
 
@@ -21,11 +18,12 @@ import org.apache.maven.model.profile.ProfileActivationContext;
 import org.codehaus.plexus.component.annotations.Component;
 
 import top.infra.maven.extension.mavenbuild.model.ProjectBuilderActivatorModelResolver;
+import top.infra.maven.extension.mavenbuild.utils.LayeredPropertyView;
 
 @Component(role = CustomActivator.class, hint = "JavaVersionActivator")
 public class JavaVersionActivator extends AbstractCustomActivator {
 
-    private static final Pattern PATTERN_JAVA_PROFILE = Pattern.compile(".*java[-]?(\\d+)[-]?.*");
+    private static final List<String> MODEL_PROPERTIES = Arrays.asList("java.version", "javaVersionForce");
 
     @Inject
     public JavaVersionActivator(
@@ -36,7 +34,7 @@ public class JavaVersionActivator extends AbstractCustomActivator {
     }
 
     static boolean isJavaVersionRelatedProfile(final String id) {
-        return PATTERN_JAVA_PROFILE.matcher(id).matches();
+        return profileJavaVersion(id).isPresent();
     }
 
     @Override
@@ -44,6 +42,23 @@ public class JavaVersionActivator extends AbstractCustomActivator {
         return true;
     }
 
+    @Override
+    protected Optional<List<String>> modelProperties() {
+        return Optional.of(MODEL_PROPERTIES);
+    }
+
+    /**
+     * Effective java.version and javaVersionForce (same precedence as in isActive).
+     */
+    @Override
+    protected Optional<String> decisionInputs(final Profile profile, final ProfileActivationContext context) {
+        return this.rawModel(context, MODEL_PROPERTIES).map(model -> {
+            final LayeredPropertyView projectContext = projectContext(model, context);
+            return String.format("java.version=%s,javaVersionForce=%s",
+                projectContext.getProperty("java.version"), projectContext.getProperty("javaVersionForce"));
+        });
+    }
+
     @Override
     protected String getName() {
         return "JavaVersionActivator";
@@ -65,11 +80,11 @@ public class JavaVersionActivator extends AbstractCustomActivator {
             //         this.getName(), projectName(context), profileId(profile), profileJavaVersion.orElse(null)));
             // }
 
-            final Map<String, Object> projectContext = projectContext(model, context);
+            final LayeredPropertyView projectContext = projectContext(model, context);
 
             Optional<Integer> javaVersionForce;
             try {
-                javaVersionForce = Optional.of(parseInt(String.format("%s", projectContext.get("javaVersionForce"))));
+                javaVersionForce = Optional.of(parseInt(String.format("%s", projectContext.getProperty("javaVersionForce"))));
             } catch (final Exception ex) {
                 javaVersionForce = Optional.empty();
             }
@@ -78,7 +93,8 @@ public class JavaVersionActivator extends AbstractCustomActivator {
             if (javaVersionForce.isPresent()) {
                 javaVersionActive = javaVersionForce.get().equals(profileJavaVersion.orElse(null));
             } else {
-                final Optional<Integer> projectJavaVersion = parseJavaVersion(String.format("%s", projectContext.get("java.version")));
+                final Optional<Integer> projectJavaVersion = parseJavaVersion(
+                    String.format("%s", projectContext.getProperty("java.version")));
                 javaVersionActive = projectJavaVersion
                     .map(integer -> integer.equals(profileJavaVersion.orElse(null))).orElse(false);
             }
@@ -102,39 +118,21 @@ public class JavaVersionActivator extends AbstractCustomActivator {
     }
 
     static Optional<Integer> profileJavaVersion(final String id) {
-        final Optional<Integer> result;
-
-        final Matcher matcher = PATTERN_JAVA_PROFILE.matcher(id);
-        if (matcher.matches()) {
-            result = Optional.of(parseInt(matcher.group(1)));
-        } else {
-            result = Optional.empty();
-        }
-
-        return result;
+        return ProfileIdClassifier.classify(id).getJavaVersion();
     }
 
     /**
-     * Provide script execution context variables.
+     * Project properties: user props override system props, override model props, override context project props.
      */
-    private static Map<String, Object> projectContext(
+    private static LayeredPropertyView projectContext(
         final Model project,
         final ProfileActivationContext context
     ) {
-        // Note: keep order.
-        final Map<String, Object> bindings = new LinkedHashMap<>();
-        // Inject project props: override defaults
-        bindings.putAll(context.getProjectProperties());
-
-        bindings.putAll(mapFromProperties(project.getProperties()));
-        // Inject system props, override previous.
-        bindings.putAll(context.getSystemProperties());
-        // Inject user props, override previous.
-        bindings.putAll(context.getUserProperties());
-        // Expose default variable context.
-        bindings.put("value", bindings);
-        // Expose resolved pom.xml model.
-        bindings.put("project", project);
-        return bindings;
+        return LayeredPropertyView.of(
+            context.getUserProperties(),
+            context.getSystemProperties(),
+            project.getProperties(),
+            context.getProjectProperties()
+        );
     }
 }
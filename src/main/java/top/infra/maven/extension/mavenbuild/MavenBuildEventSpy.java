@@ -1,19 +1,27 @@
 package top.infra.maven.extension.mavenbuild;
 
+import static top.infra.maven.extension.mavenbuild.CiOption.CACHE_SESSION_PATH;
 import static top.infra.maven.extension.mavenbuild.CiOption.PATTERN_VARS_ENV_DOT_CI;
 import static top.infra.maven.extension.mavenbuild.CiOptionEventAware.ORDER_CI_OPTION;
 import static top.infra.maven.extension.mavenbuild.DockerEventAware.ORDER_DOCKER;
 import static top.infra.maven.extension.mavenbuild.GpgEventAware.ORDER_GPG;
+import static top.infra.maven.extension.mavenbuild.MavenEventAwareTimings.TIMINGS_JSON;
 import static top.infra.maven.extension.mavenbuild.MavenGoalEditorEventAware.ORDER_GOAL_EDITOR;
 import static top.infra.maven.extension.mavenbuild.MavenProjectInfoEventAware.ORDER_MAVEN_PROJECT_INFO;
 import static top.infra.maven.extension.mavenbuild.MavenSettingsFilesEventAware.ORDER_MAVEN_SETTINGS_FILES;
 import static top.infra.maven.extension.mavenbuild.MavenSettingsLocalRepositoryEventAware.ORDER_MAVEN_SETTINGS_LOCALREPOSITORY;
 import static top.infra.maven.extension.mavenbuild.MavenSettingsServersEventAware.ORDER_MAVEN_SETTINGS_SERVERS;
+import static top.infra.maven.extension.mavenbuild.ModelPrewarmEventAware.ORDER_MODEL_PREWARM;
 import static top.infra.maven.extension.mavenbuild.PrintInfoEventAware.ORDER_PRINT_INFO;
 import static top.infra.maven.extension.mavenbuild.SystemToUserPropertiesEventAware.ORDER_SYSTEM_TO_USER_PROPERTIES;
 import static top.infra.maven.extension.mavenbuild.model.ProjectBuilderActivatorModelResolver.ORDER_MODEL_RESOLVER;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map.Entry;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -44,12 +52,21 @@ import top.infra.maven.logging.LoggerPlexusImpl;
 @Singleton
 public class MavenBuildEventSpy extends AbstractEventSpy {
 
+    /**
+     * Number of slowest handlers and events logged at info level, the rest are logged at debug level.
+     */
+    private static final int TIMINGS_TOP = 10;
+
     private final Logger logger;
 
     private final CiOptionEventAware ciOptsFactory;
 
     private final List<MavenEventAware> eventAwares;
 
+    private final MavenEventAwareTimings timings;
+
+    private final MavenEventAwareDispatcher dispatcher;
+
     private CiOptionAccessor ciOpts;
 
     /**
@@ -70,6 +87,9 @@ public class MavenBuildEventSpy extends AbstractEventSpy {
         this.ciOptsFactory = ciOptsFactory;
         this.eventAwares = eventAwares.stream().sorted().collect(Collectors.toList());
 
+        this.timings = new MavenEventAwareTimings();
+        this.dispatcher = new MavenEventAwareDispatcher(this.eventAwares, this.timings);
+
         this.ciOpts = null;
     }
 
@@ -81,14 +101,17 @@ public class MavenBuildEventSpy extends AbstractEventSpy {
                 .forEach(idx -> {
                     final MavenEventAware it = this.eventAwares.get(idx);
                     logger.info(String.format(
-                        "eventAware index: [%s], order: [%s], name: [%s]",
+                        "eventAware index: [%s], order: [%s], name: [%s], dependsOn: %s",
                         String.format("%02d ", idx),
                         String.format("%011d ", it.getOrder()),
-                        it.getClass().getSimpleName()
+                        it.getClass().getSimpleName(),
+                        this.dispatcher.getDependencies(it).stream().map(dep -> dep.getClass().getSimpleName()).collect(Collectors.toList())
                     ));
                 });
 
             this.onInit(context);
+
+            this.reportTimings(this.ciOpts);
         } catch (final Exception ex) {
             logger.error("Exception on init.", ex);
             System.exit(1);
@@ -126,6 +149,13 @@ public class MavenBuildEventSpy extends AbstractEventSpy {
         super.onEvent(event);
     }
 
+    @Override
+    public void close() throws Exception {
+        this.dispatcher.shutdown();
+
+        super.close();
+    }
+
     public void onInit(final Context context) {
         // print info
         assert ORDER_PRINT_INFO < ORDER_SYSTEM_TO_USER_PROPERTIES;
@@ -133,7 +163,7 @@ public class MavenBuildEventSpy extends AbstractEventSpy {
         assert ORDER_SYSTEM_TO_USER_PROPERTIES < ORDER_CI_OPTION;
         // init ci options
 
-        this.eventAwares.forEach(it -> it.onInit(context));
+        this.dispatch("onInit", it -> it.onInit(context));
 
         this.ciOpts = this.ciOptsFactory.getCiOpts(null);
         this.afterInit(context, this.ciOpts);
@@ -148,7 +178,7 @@ public class MavenBuildEventSpy extends AbstractEventSpy {
         // warn about absent env.VARIABLEs in settings.xml's server tags
         assert ORDER_MAVEN_SETTINGS_FILES < ORDER_MAVEN_SETTINGS_SERVERS;
 
-        this.eventAwares.forEach(it -> it.afterInit(context, ciOpts));
+        this.dispatch("afterInit", it -> it.afterInit(context, ciOpts));
     }
 
     public void onSettingsBuildingRequest(
@@ -166,7 +196,7 @@ public class MavenBuildEventSpy extends AbstractEventSpy {
         // set custom settings file (if present) into request.userSettingsFile
         assert ORDER_MAVEN_SETTINGS_LOCALREPOSITORY < ORDER_MAVEN_SETTINGS_FILES;
 
-        this.eventAwares.forEach(it -> it.onSettingsBuildingRequest(request, ciOpts));
+        this.dispatch("onSettingsBuildingRequest", it -> it.onSettingsBuildingRequest(request, ciOpts));
     }
 
     public void onSettingsBuildingResult(
@@ -180,7 +210,7 @@ public class MavenBuildEventSpy extends AbstractEventSpy {
         // set settings.localRepository (if present) into effectiveSettings
         assert ORDER_CI_OPTION < ORDER_MAVEN_SETTINGS_LOCALREPOSITORY;
 
-        this.eventAwares.forEach(it -> it.onSettingsBuildingResult(result, ciOpts));
+        this.dispatch("onSettingsBuildingResult", it -> it.onSettingsBuildingResult(result, ciOpts));
     }
 
     public void onToolchainsBuildingRequest(
@@ -191,7 +221,7 @@ public class MavenBuildEventSpy extends AbstractEventSpy {
             logger.info(String.format("onEvent ToolchainsBuildingRequest %s", request));
         }
 
-        this.eventAwares.forEach(it -> it.onToolchainsBuildingRequest(request, ciOpts));
+        this.dispatch("onToolchainsBuildingRequest", it -> it.onToolchainsBuildingRequest(request, ciOpts));
     }
 
     public void onToolchainsBuildingResult(
@@ -202,7 +232,7 @@ public class MavenBuildEventSpy extends AbstractEventSpy {
             logger.info(String.format("onEvent ToolchainsBuildingResult %s", result));
         }
 
-        this.eventAwares.forEach(it -> it.onToolchainsBuildingResult(result, ciOpts));
+        this.dispatch("onToolchainsBuildingResult", it -> it.onToolchainsBuildingResult(result, ciOpts));
     }
 
     public void onMavenExecutionRequest(
@@ -217,8 +247,7 @@ public class MavenBuildEventSpy extends AbstractEventSpy {
         assert ORDER_MAVEN_SETTINGS_LOCALREPOSITORY < ORDER_MAVEN_SETTINGS_SERVERS;
         // check empty or blank property values in settings.servers
 
-        this.eventAwares.forEach(it -> it.onMavenExecutionRequest(request, ciOpts));
-
+        this.dispatch("onMavenExecutionRequest", it -> it.onMavenExecutionRequest(request, ciOpts));
 
         final ProjectBuildingRequest projectBuildingRequest = request.getProjectBuildingRequest();
         if (projectBuildingRequest != null) {
@@ -265,7 +294,47 @@ public class MavenBuildEventSpy extends AbstractEventSpy {
         // edit goals
         assert ORDER_GOAL_EDITOR < ORDER_DOCKER;
         // prepare docker
+        assert ORDER_GOAL_EDITOR < ORDER_MODEL_PREWARM;
+        // pre-warm models with final user properties
+
+        this.dispatch("onProjectBuildingRequest", it -> it.onProjectBuildingRequest(mavenExecution, projectBuilding, ciOpts));
 
-        this.eventAwares.forEach(it -> it.onProjectBuildingRequest(mavenExecution, projectBuilding, ciOpts));
+        this.reportTimings(ciOpts);
+    }
+
+    private void dispatch(final String event, final Consumer<MavenEventAware> action) {
+        try {
+            this.dispatcher.dispatch(event, action);
+        } finally {
+            // handlers may write systemProperties or userProperties
+            if (this.ciOpts != null) {
+                this.ciOpts.invalidate();
+            }
+        }
+    }
+
+    private void reportTimings(final CiOptionAccessor ciOpts) {
+        if (logger.isInfoEnabled()) {
+            // full timings are in TIMINGS_JSON
+            final Entry<List<String>, List<String>> summary = this.timings.summary(TIMINGS_TOP);
+            logger.info(">>>>>>>>>> ---------- eventAware timings ---------- >>>>>>>>>>");
+            summary.getKey().forEach(logger::info);
+            if (logger.isDebugEnabled()) {
+                summary.getValue().forEach(logger::debug);
+            }
+            logger.info("<<<<<<<<<< ---------- eventAware timings ---------- <<<<<<<<<<");
+        }
+
+        if (ciOpts != null) {
+            ciOpts.getOption(CACHE_SESSION_PATH).ifPresent(cacheSession -> {
+                final Path path = Paths.get(cacheSession, TIMINGS_JSON);
+                try {
+                    Files.createDirectories(path.getParent());
+                    this.timings.writeJson(path);
+                } catch (final Exception ex) {
+                    logger.warn(String.format("Error write eventAware timings into [%s]. %s", path, ex.getMessage()));
+                }
+            });
+        }
     }
 }
@@ -7,6 +7,8 @@ import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
 
+import top.infra.maven.extension.mavenbuild.model.ProjectBuilderActivatorModelResolver;
+
 /**
  * see: https://maven.apache.org/examples/maven-3-lifecycle-extensions.html
  */
@@ -16,6 +18,12 @@ public class MavenBuildLifecycleParticipant extends AbstractMavenLifecyclePartic
     @Requirement
     private Logger logger;
 
+    @Requirement
+    private ProjectBuilderActivatorModelResolver resolver;
+
+    @Requirement
+    private GitPropertiesBean gitProperties;
+
     public MavenBuildLifecycleParticipant() {
         // no-op
     }
@@ -29,6 +37,12 @@ public class MavenBuildLifecycleParticipant extends AbstractMavenLifecyclePartic
                 logger.info(String.format("LifecycleParticipant afterProjectsRead [%s]", session.getCurrentProject()));
             }
         }
+
+        if (this.resolver != null) {
+            logger.info(String.format("LifecycleParticipant afterProjectsRead activator model cache %s", this.resolver.modelCacheStats()));
+            // profiles of all projects are activated by now
+            this.resolver.getDecisionStore().save();
+        }
     }
 
     @Override
@@ -44,7 +58,10 @@ public class MavenBuildLifecycleParticipant extends AbstractMavenLifecyclePartic
 
     @Override
     public void afterSessionEnd(final MavenSession session) throws MavenExecutionException {
-        // no-op
+        if (this.gitProperties != null) {
+            // save git properties computed during this session (once) and release the repository
+            this.gitProperties.close();
+        }
     }
 
     private boolean isOnRootProject(final MavenSession session) {
@@ -1,19 +1,19 @@
 package top.infra.maven.extension.mavenbuild;
 
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.maven.model.Activation;
 import org.apache.maven.model.Profile;
@@ -45,6 +45,11 @@ public class MavenBuildProfileSelector extends DefaultProfileSelector {
     @Requirement(role = CustomActivator.class)
     protected List<CustomActivator> customActivators = new ArrayList<>();
 
+    /**
+     * Custom activators by profile id, computed once per id.
+     */
+    private final Map<String, List<CustomActivator>> activatorIndex = new ConcurrentHashMap<>();
+
     /**
      * Profiles activated by custom and default activators.
      */
@@ -55,63 +60,53 @@ public class MavenBuildProfileSelector extends DefaultProfileSelector {
         final ModelProblemCollector problems
     ) {
         final List<Profile> defaultActivated = super.getActiveProfiles(profiles, context, problems);
-        final Set<String> customSupported = supportedProfiles(defaultActivated, this.customActivators)
-            .stream()
-            .map(Profile::toString)
-            .collect(Collectors.toSet());
+        final Set<Profile> defaultActivatedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        defaultActivatedSet.addAll(defaultActivated);
 
-        if (!customSupported.isEmpty()) {
-            logger.debug(String.format("profiles default activated: %s", defaultActivated));
-            logger.debug(String.format(
-                "profiles default activated and custom supported (need to run custom activators against these): %s",
-                customSupported));
+        final Collection<Profile> profilesActivated = new LinkedHashSet<>();
+        for (final Profile profile : defaultActivated) {
+            if (this.activators(profile).isEmpty()) {
+                profilesActivated.add(profile);
+            }
         }
 
-        final List<Profile> defaultActiveNotSupported = defaultActivated
-            .stream()
-            .filter(profile -> !customSupported.contains(profile.toString()))
-            .collect(toList());
-
-        final List<Profile> customActivate = supportedProfiles(profiles, this.customActivators)
-            .stream()
-            .filter(profile -> customSupported.contains(profile.toString()) || noAnyCondition(profile))
-            .collect(toList());
-        final Map<Profile, List<CustomActivator>> profileActivators = customActivate
-            .stream()
-            .collect(toMap(
-                Function.identity(),
-                profile -> this.customActivators.stream().filter(activator -> activator.supported(profile)).collect(toList())));
-
-        final Collection<Profile> profilesActivated = new LinkedHashSet<>(defaultActiveNotSupported);
-
-        if (!customActivate.isEmpty()) {
-            logger.debug(String.format("profiles customActivate (need to run custom activators against these): %s",
-                customActivate));
-            profileActivators.forEach((profile, activators) -> logger.debug(String.format(
-                "profile [%s], activators: %s",
-                profile,
-                activators.stream().map(activator -> activator.getClass().getSimpleName()).collect(toList())
-            )));
-
-            final List<Profile> customActivated = customActivate
-                .stream()
-                .filter(profile ->
-                    profileActivators.get(profile).stream().allMatch(activator -> activator.isActive(profile, context, problems)))
-                .collect(toList());
-            profilesActivated.addAll(customActivated);
+        // profiles default activated and custom supported or without any condition (need to run custom activators against these)
+        final List<Profile> customActivated = new ArrayList<>();
+        for (final Profile profile : profiles) {
+            final List<CustomActivator> activators = this.activators(profile);
+            if (!activators.isEmpty() && (defaultActivatedSet.contains(profile) || noAnyCondition(profile))) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug(String.format("profile [%s], activators: %s",
+                        profile, activators.stream().map(activator -> activator.getClass().getSimpleName()).collect(toList())));
+                }
+
+                if (activators.stream().allMatch(activator -> activator.isActive(profile, context, problems))) {
+                    customActivated.add(profile);
+                }
+            }
+        }
+        profilesActivated.addAll(customActivated);
 
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("profiles default activated: %s", defaultActivated));
             if (!customActivated.isEmpty()) {
                 logger.debug(String.format("custom activated profiles: %s", customActivated));
             }
-        }
-
-        if (!profilesActivated.isEmpty()) {
-            logger.debug(String.format("profiles activated: %s", Arrays.toString(profilesActivated.toArray())));
+            if (!profilesActivated.isEmpty()) {
+                logger.debug(String.format("profiles activated: %s", Arrays.toString(profilesActivated.toArray())));
+            }
         }
 
         return new ArrayList<>(profilesActivated);
     }
 
+    private List<CustomActivator> activators(final Profile profile) {
+        return this.activatorIndex.computeIfAbsent(profile.getId(), id -> this.customActivators
+            .stream()
+            .filter(activator -> activator.supported(profile))
+            .collect(toList()));
+    }
+
     static boolean noAnyCondition(final Profile profile) {
         final Activation activation = profile.getActivation();
         return activation == null
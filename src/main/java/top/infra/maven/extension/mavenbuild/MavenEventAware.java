@@ -1,6 +1,8 @@
 package top.infra.maven.extension.mavenbuild;
 
 import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
 
 import org.apache.maven.eventspy.EventSpy.Context;
 import org.apache.maven.execution.MavenExecutionRequest;
@@ -41,6 +43,16 @@ public interface MavenEventAware extends Comparable<MavenEventAware> {
         return Integer.MAX_VALUE;
     }
 
+    /**
+     * Types of {@link MavenEventAware} this one depends on, this one is called after them on every event.
+     * Instances do not depend on each other may be called concurrently.
+     *
+     * @return dependencies (default method returns empty, which means depends on all instances with smaller order)
+     */
+    default Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.empty();
+    }
+
     default void onInit(final Context context) {
         // no-op
     }
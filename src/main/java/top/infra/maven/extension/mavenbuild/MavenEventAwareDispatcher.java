@@ -0,0 +1,160 @@
+package top.infra.maven.extension.mavenbuild;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Runs {@link MavenEventAware}s of an event as a DAG (see {@link MavenEventAware#dependsOn()}) on a bounded executor.
+ * Independent handlers run concurrently, a handler starts after all its dependencies finished.
+ */
+public class MavenEventAwareDispatcher {
+
+    private static final int PARALLELISM = 4;
+
+    private final List<MavenEventAware> eventAwares;
+
+    private final Map<MavenEventAware, List<MavenEventAware>> dependencies;
+
+    private final MavenEventAwareTimings timings;
+
+    private final ExecutorService executor;
+
+    /**
+     * Constructor.
+     *
+     * @param eventAwares eventAwares (sorted)
+     * @param timings     timings
+     */
+    public MavenEventAwareDispatcher(final List<MavenEventAware> eventAwares, final MavenEventAwareTimings timings) {
+        this.eventAwares = eventAwares;
+        this.dependencies = dependencies(eventAwares);
+        this.timings = timings;
+        this.executor = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(PARALLELISM, eventAwares.size())),
+            threadFactory(Thread.currentThread().getContextClassLoader()));
+    }
+
+    public List<MavenEventAware> getDependencies(final MavenEventAware eventAware) {
+        return this.dependencies.getOrDefault(eventAware, Collections.emptyList());
+    }
+
+    /**
+     * Run action on each eventAware, wait until all finished.
+     * First exception thrown by a handler is rethrown, handlers depend on a failed one are not run.
+     *
+     * @param event  event name
+     * @param action action
+     */
+    public void dispatch(final String event, final Consumer<MavenEventAware> action) {
+        final Map<MavenEventAware, CompletableFuture<Void>> futures = new IdentityHashMap<>();
+        this.eventAwares.forEach(it -> this.future(event, action, it, futures));
+
+        try {
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (final CompletionException ex) {
+            final Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    private CompletableFuture<Void> future(
+        final String event,
+        final Consumer<MavenEventAware> action,
+        final MavenEventAware eventAware,
+        final Map<MavenEventAware, CompletableFuture<Void>> futures
+    ) {
+        final CompletableFuture<Void> found = futures.get(eventAware);
+        if (found != null) {
+            return found;
+        }
+
+        final CompletableFuture<?>[] deps = this.getDependencies(eventAware)
+            .stream()
+            .map(dep -> this.future(event, action, dep, futures))
+            .toArray(CompletableFuture[]::new);
+        final CompletableFuture<Void> result = CompletableFuture.allOf(deps)
+            .thenRunAsync(() -> this.timings.time(event, eventAware, () -> action.accept(eventAware)), this.executor);
+        futures.put(eventAware, result);
+        return result;
+    }
+
+    /**
+     * Resolve dependencies of each eventAware.
+     * EventAwares that do not declare dependencies depend on all eventAwares before them.
+     *
+     * @param eventAwares eventAwares (sorted)
+     * @return eventAware to its dependencies
+     * @throws IllegalStateException on circular dependencies
+     */
+    static Map<MavenEventAware, List<MavenEventAware>> dependencies(final List<MavenEventAware> eventAwares) {
+        final Map<MavenEventAware, List<MavenEventAware>> result = new IdentityHashMap<>();
+        for (int idx = 0; idx < eventAwares.size(); idx++) {
+            final MavenEventAware eventAware = eventAwares.get(idx);
+            final List<MavenEventAware> before = eventAwares.subList(0, idx);
+            final List<MavenEventAware> deps = eventAware.dependsOn()
+                .map(types -> eventAwares
+                    .stream()
+                    .filter(candidate -> candidate != eventAware)
+                    .filter(candidate -> types.stream().anyMatch(type -> type.isInstance(candidate)))
+                    .collect(Collectors.toList()))
+                .orElseGet(() -> new ArrayList<>(before));
+            result.put(eventAware, deps);
+        }
+
+        eventAwares.forEach(it -> checkCircular(it, result, new LinkedHashSet<>(), Collections.newSetFromMap(new IdentityHashMap<>())));
+        return result;
+    }
+
+    private static void checkCircular(
+        final MavenEventAware eventAware,
+        final Map<MavenEventAware, List<MavenEventAware>> dependencies,
+        final Set<MavenEventAware> path,
+        final Set<MavenEventAware> checked
+    ) {
+        if (checked.contains(eventAware)) {
+            return;
+        }
+        if (!path.add(eventAware)) {
+            throw new IllegalStateException(String.format("Circular dependencies found %s -> %s",
+                path.stream().map(it -> it.getClass().getSimpleName()).collect(Collectors.toList()),
+                eventAware.getClass().getSimpleName()));
+        }
+        dependencies.getOrDefault(eventAware, Collections.emptyList())
+            .forEach(dep -> checkCircular(dep, dependencies, path, checked));
+        path.remove(eventAware);
+        checked.add(eventAware);
+    }
+
+    private static ThreadFactory threadFactory(final ClassLoader contextClassLoader) {
+        final AtomicInteger counter = new AtomicInteger(0);
+        return runnable -> {
+            final Thread thread = new Thread(runnable, String.format("maven-event-aware-%d", counter.incrementAndGet()));
+            thread.setDaemon(true);
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        };
+    }
+}
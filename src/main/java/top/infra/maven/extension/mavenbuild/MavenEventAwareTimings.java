@@ -0,0 +1,172 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.newTuple;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import top.infra.maven.extension.mavenbuild.utils.FileUtils;
+
+/**
+ * Records how long each {@link MavenEventAware} takes on each event.
+ * Thread safe, records may be added from any thread.
+ */
+public class MavenEventAwareTimings {
+
+    public static final String TIMINGS_JSON = "maven-event-aware-timings.json";
+
+    private final List<Timing> timings;
+
+    public MavenEventAwareTimings() {
+        this.timings = new ArrayList<>();
+    }
+
+    /**
+     * Run action and record elapsed time, elapsed time is recorded even if action throws.
+     *
+     * @param event     event name
+     * @param eventAware handler
+     * @param action    action
+     */
+    public void time(final String event, final MavenEventAware eventAware, final Runnable action) {
+        final long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            this.record(event, eventAware, System.nanoTime() - start);
+        }
+    }
+
+    public void record(final String event, final MavenEventAware eventAware, final long nanos) {
+        final Timing timing = new Timing(event, eventAware.getClass().getSimpleName(), eventAware.getOrder(), nanos);
+        synchronized (this.timings) {
+            this.timings.add(timing);
+        }
+    }
+
+    public List<Timing> getTimings() {
+        synchronized (this.timings) {
+            return new ArrayList<>(this.timings);
+        }
+    }
+
+    /**
+     * Total elapsed time of each handler (all events), slowest first.
+     *
+     * @return handler name to total nanos
+     */
+    public Map<String, Long> totalByEventAware() {
+        return this.getTimings()
+            .stream()
+            .collect(Collectors.groupingBy(Timing::getEventAware, Collectors.summingLong(Timing::getNanos)))
+            .entrySet()
+            .stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * Human readable summary, slowest first.
+     *
+     * @param top number of slowest handlers (totals) and slowest events to report in detail
+     * @return lines of the top slowest (key) and lines of the rest (value)
+     */
+    public Entry<List<String>, List<String>> summary(final int top) {
+        final List<String> slowest = new ArrayList<>();
+        final List<String> rest = new ArrayList<>();
+        final AtomicInteger totals = new AtomicInteger(0);
+        this.totalByEventAware().forEach((eventAware, nanos) ->
+            (totals.getAndIncrement() < top ? slowest : rest).add(String.format(
+                "eventAware total: %8d ms, name: [%s]", TimeUnit.NANOSECONDS.toMillis(nanos), eventAware)));
+        final List<Timing> events = this.getTimings()
+            .stream()
+            .sorted(Comparator.comparingLong(Timing::getNanos).reversed())
+            .collect(Collectors.toList());
+        for (int idx = 0; idx < events.size(); idx++) {
+            final Timing timing = events.get(idx);
+            (idx < top ? slowest : rest).add(String.format(
+                "eventAware event: %8d ms, name: [%s], event: [%s]",
+                TimeUnit.NANOSECONDS.toMillis(timing.getNanos()), timing.getEventAware(), timing.getEvent()));
+        }
+        return newTuple(slowest, rest);
+    }
+
+    public JSONObject toJson() {
+        final JSONArray array = new JSONArray();
+        this.getTimings().forEach(timing -> {
+            final JSONObject item = new JSONObject();
+            item.put("event", timing.getEvent());
+            item.put("eventAware", timing.getEventAware());
+            item.put("order", timing.getOrder());
+            item.put("nanos", timing.getNanos());
+            item.put("millis", TimeUnit.NANOSECONDS.toMillis(timing.getNanos()));
+            array.put(item);
+        });
+
+        final JSONObject totals = new JSONObject();
+        this.totalByEventAware().forEach((eventAware, nanos) -> totals.put(eventAware, TimeUnit.NANOSECONDS.toMillis(nanos)));
+
+        final JSONObject result = new JSONObject();
+        result.put("timings", array);
+        result.put("totalMillis", totals);
+        return result;
+    }
+
+    /**
+     * Write timings into file (overwrite).
+     *
+     * @param path target file
+     */
+    public void writeJson(final Path path) {
+        FileUtils.writeFile(
+            path,
+            this.toJson().toString(2).getBytes(UTF_8),
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE
+        );
+    }
+
+    public static class Timing {
+
+        private final String event;
+        private final String eventAware;
+        private final int order;
+        private final long nanos;
+
+        public Timing(final String event, final String eventAware, final int order, final long nanos) {
+            this.event = event;
+            this.eventAware = eventAware;
+            this.order = order;
+            this.nanos = nanos;
+        }
+
+        public String getEvent() {
+            return this.event;
+        }
+
+        public String getEventAware() {
+            return this.eventAware;
+        }
+
+        public int getOrder() {
+            return this.order;
+        }
+
+        public long getNanos() {
+            return this.nanos;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Properties;
 
 import javax.inject.Inject;
@@ -45,6 +46,11 @@ public class MavenGoalEditorEventAware implements MavenEventAware {
         return ORDER_GOAL_EDITOR;
     }
 
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Collections.singletonList(MavenProjectInfoEventAware.class));
+    }
+
     @Override
     public void onProjectBuildingRequest(
         final MavenExecutionRequest mavenExecution,
@@ -5,20 +5,20 @@ import static top.infra.maven.extension.mavenbuild.utils.FileUtils.pathname;
 import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.stackTrace;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLStreamException;
 
 import org.apache.maven.model.Model;
-import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingRequest;
 import org.apache.maven.project.ProjectBuildingResult;
-import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 
 import top.infra.maven.logging.Logger;
 
@@ -89,22 +89,39 @@ public class MavenProjectInfo {
         return this.getId();
     }
 
+    /**
+     * Read coordinates by streaming the pom header (see {@link PomHeaderReader}).
+     *
+     * @param logger  logger
+     * @param pomFile pom file
+     * @return projectInfo, empty if pom is unreadable or coordinates need property interpolation (build project instead)
+     */
     public static Optional<MavenProjectInfo> newProjectInfoByReadPom(
         final Logger logger,
         final File pomFile
     ) {
-        final MavenXpp3Reader xpp3Reader = new MavenXpp3Reader();
         try {
-            final Model model = xpp3Reader.read(new FileReader(pomFile));
-            return Optional.of(new MavenProjectInfo(model.getArtifactId(), model.getGroupId(), model.getPackaging(), model.getVersion()));
-        } catch (final IllegalArgumentException | IOException | XmlPullParserException ex) {
+            final Optional<MavenProjectInfo> result = PomHeaderReader.read(pomFile);
+            if (result.isPresent() && result.get().needsInterpolation()) {
+                if (logger.isInfoEnabled()) {
+                    logger.info(String.format("Project info [%s] from pomFile [%s] needs interpolation", result.get(), pathname(pomFile)));
+                }
+                return Optional.empty();
+            }
+            return result;
+        } catch (final IllegalArgumentException | IOException | XMLStreamException ex) {
             if (logger.isWarnEnabled()) {
-                logger.warn(String.format("Failed to read project info from pomFile [%s] (by MavenXpp3Reader)", pathname(pomFile)), ex);
+                logger.warn(String.format("Failed to read project info from pomFile [%s] (by PomHeaderReader)", pathname(pomFile)), ex);
             }
             return Optional.empty();
         }
     }
 
+    private boolean needsInterpolation() {
+        return Stream.of(this.artifactId, this.groupId, this.packaging, this.version)
+            .anyMatch(value -> value != null && value.contains("${"));
+    }
+
     public static MavenProjectInfo newProjectInfoByBuildProject(
         final Logger logger,
         final ProjectBuilder projectBuilder,
@@ -8,7 +8,10 @@ import static top.infra.maven.extension.mavenbuild.MavenProjectInfo.newProjectIn
 import static top.infra.maven.extension.mavenbuild.MavenProjectInfo.newProjectInfoByReadPom;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -21,6 +24,7 @@ import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingRequest;
 import org.eclipse.aether.RepositorySystemSession;
 
+import top.infra.maven.extension.mavenbuild.model.ProjectBuilderActivatorModelResolver;
 import top.infra.maven.logging.Logger;
 import top.infra.maven.logging.LoggerPlexusImpl;
 
@@ -37,21 +41,28 @@ public class MavenProjectInfoEventAware implements MavenEventAware {
 
     private final DefaultRepositorySystemSessionFactory repositorySessionFactory;
 
+    private final ProjectBuilderActivatorModelResolver resolver;
+
     private CiOptionAccessor ciOpts;
 
     private MavenExecutionRequest mavenExecutionCopied;
 
     private MavenProjectInfo projectInfo;
 
+    private volatile ReactorCoordinateIndex reactorIndex;
+
     @Inject
     public MavenProjectInfoEventAware(
         final org.codehaus.plexus.logging.Logger logger,
         final ProjectBuilder projectBuilder,
-        final DefaultRepositorySystemSessionFactory repositorySessionFactory
+        final DefaultRepositorySystemSessionFactory repositorySessionFactory,
+        final ProjectBuilderActivatorModelResolver resolver
     ) {
         this.logger = new LoggerPlexusImpl(logger);
         this.projectBuilder = projectBuilder;
         this.repositorySessionFactory = repositorySessionFactory;
+        this.resolver = resolver;
+        this.reactorIndex = ReactorCoordinateIndex.empty();
     }
 
     public MavenProjectInfo getMavenProjectInfo(final MavenExecutionRequest request) {
@@ -115,6 +126,11 @@ public class MavenProjectInfoEventAware implements MavenEventAware {
         return ORDER_MAVEN_PROJECT_INFO;
     }
 
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Arrays.asList(CiOptionEventAware.class, ProjectBuilderActivatorModelResolver.class));
+    }
+
     public MavenProjectInfo getProjectInfo() {
         if (this.projectInfo == null && this.ciOpts != null && this.mavenExecutionCopied != null) { // Lazy init
             this.projectInfo = this.resolveAndCheck(this.ciOpts, this.mavenExecutionCopied);
@@ -123,12 +139,30 @@ public class MavenProjectInfoEventAware implements MavenEventAware {
         return this.projectInfo;
     }
 
+    /**
+     * Coordinates of all reactor modules, built on project building request (also under fast mode).
+     *
+     * @return index, empty if not built yet
+     */
+    public ReactorCoordinateIndex getReactorIndex() {
+        return this.reactorIndex;
+    }
+
     @Override
     public void onProjectBuildingRequest(
         final MavenExecutionRequest mavenExecution,
         final ProjectBuildingRequest projectBuilding,
         final CiOptionAccessor ciOpts
     ) {
+        if (mavenExecution.getPom() != null) {
+            final long start = System.currentTimeMillis();
+            this.reactorIndex = ReactorCoordinateIndex.build(this.resolver.getRawModelResolver().moduleModels(mavenExecution.getPom()));
+            if (logger.isInfoEnabled()) {
+                logger.info(String.format("Indexed coordinates of %s reactor modules in %s ms.",
+                    this.reactorIndex.size(), System.currentTimeMillis() - start));
+            }
+        }
+
         if (!ciOpts.getOption(FAST).map(Boolean::parseBoolean).orElse(FALSE)) {
             this.projectInfo = this.resolveAndCheck(ciOpts, mavenExecution);
         } else {
@@ -9,6 +9,10 @@ import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.isNotEm
 import static top.infra.maven.extension.mavenbuild.utils.SystemUtils.os;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -48,6 +52,11 @@ public class MavenSettingsFilesEventAware implements MavenEventAware {
         return ORDER_MAVEN_SETTINGS_FILES;
     }
 
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Arrays.asList(CiOptionEventAware.class, MavenSettingsLocalRepositoryEventAware.class));
+    }
+
     @Override
     public void afterInit(final Context context, final CiOptionAccessor ciOpts) {
         this.settingsXmlPathname = ciOpts.getOption(MAVEN_SETTINGS_FILE).orElse(null);
@@ -58,14 +67,14 @@ public class MavenSettingsFilesEventAware implements MavenEventAware {
         final boolean update = MavenUtils.cmdArgUpdate(context).orElse(FALSE);
 
         ciOpts.createCacheInfrastructure();
-        logger.info(">>>>>>>>>> ---------- download settings.xml and settings-security.xml ---------- >>>>>>>>>>");
-        this.downloadSettingsXml(offline, update);
-        this.downloadSettingsSecurityXml(offline, update);
-        logger.info("<<<<<<<<<< ---------- download settings.xml and settings-security.xml ---------- <<<<<<<<<<");
-
-        logger.info(">>>>>>>>>> ---------- download toolchains.xml ---------- >>>>>>>>>>");
-        this.downloadToolchainsXml(offline, update);
-        logger.info("<<<<<<<<<< ---------- download toolchains.xml ---------- <<<<<<<<<<");
+        logger.info(">>>>>>>>>> ---------- download settings.xml, settings-security.xml and toolchains.xml ---------- >>>>>>>>>>");
+        final List<GitRepository.Download> downloads = new ArrayList<>();
+        this.settingsXml().ifPresent(downloads::add);
+        downloads.add(settingsSecurityXml());
+        downloads.add(toolchainsXml());
+        // concurrently
+        this.gitRepository.download(downloads, offline, update);
+        logger.info("<<<<<<<<<< ---------- download settings.xml, settings-security.xml and toolchains.xml ---------- <<<<<<<<<<");
     }
 
     @Override
@@ -83,27 +92,27 @@ public class MavenSettingsFilesEventAware implements MavenEventAware {
         }
     }
 
-    private void downloadSettingsXml(final boolean offline, final boolean update) {
+    private Optional<GitRepository.Download> settingsXml() {
         // settings.xml
         final String targetFile = this.settingsXmlPathname;
-        if (isNotEmpty(targetFile)) {
-            this.gitRepository.download(SRC_MAVEN_SETTINGS_XML, targetFile, true, offline, update);
-        }
+        return isNotEmpty(targetFile)
+            ? Optional.of(new GitRepository.Download(SRC_MAVEN_SETTINGS_XML, targetFile, true))
+            : Optional.empty();
     }
 
-    private void downloadSettingsSecurityXml(final boolean offline, final boolean update) {
+    private static GitRepository.Download settingsSecurityXml() {
         // settings-security.xml (optional)
         final String targetFile = MavenUtils.settingsSecurityXml();
-        this.gitRepository.download(SRC_MAVEN_SETTINGS_SECURITY_XML, targetFile, false, offline, update);
+        return new GitRepository.Download(SRC_MAVEN_SETTINGS_SECURITY_XML, targetFile, false);
     }
 
-    private void downloadToolchainsXml(final boolean offline, final boolean update) {
+    private static GitRepository.Download toolchainsXml() {
         // toolchains.xml
         final String os = os();
         final String sourceFile = "generic".equals(os)
             ? "src/main/maven/toolchains.xml"
             : "src/main/maven/toolchains-" + os + ".xml";
         final String targetFile = MavenUtils.toolchainsXml();
-        this.gitRepository.download(sourceFile, targetFile, true, offline, update);
+        return new GitRepository.Download(sourceFile, targetFile, true);
     }
 }
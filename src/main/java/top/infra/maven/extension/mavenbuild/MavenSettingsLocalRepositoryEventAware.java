@@ -4,6 +4,9 @@ import static top.infra.maven.extension.mavenbuild.CiOptionEventAware.ORDER_CI_O
 import static top.infra.maven.extension.mavenbuild.SystemToUserPropertiesEventAware.copyOrSetDefaultToUserProps;
 import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.isEmpty;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
 
 import javax.inject.Inject;
@@ -48,6 +51,11 @@ public class MavenSettingsLocalRepositoryEventAware implements MavenEventAware {
         return MavenSettingsLocalRepositoryEventAware.ORDER_MAVEN_SETTINGS_LOCALREPOSITORY;
     }
 
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Collections.singletonList(CiOptionEventAware.class));
+    }
+
     @Override
     public void onInit(final Context context) {
         final Properties systemProperties = MavenUtils.systemProperties(context);
@@ -7,9 +7,11 @@ import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.isNotEm
 
 import cn.home1.tools.maven.MavenSettingsSecurity;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -102,6 +104,16 @@ public class MavenSettingsServersEventAware extends AbstractMavenLifecyclePartic
         return ORDER_MAVEN_SETTINGS_SERVERS;
     }
 
+    /**
+     * Method of {@link MavenEventAware}.
+     *
+     * @return dependencies
+     */
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Arrays.asList(MavenSettingsLocalRepositoryEventAware.class, MavenSettingsFilesEventAware.class));
+    }
+
     /**
      * Method of {@link MavenEventAware}.
      *
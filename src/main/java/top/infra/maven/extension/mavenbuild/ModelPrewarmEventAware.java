@@ -0,0 +1,59 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static top.infra.maven.extension.mavenbuild.DockerEventAware.ORDER_DOCKER;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.project.ProjectBuildingRequest;
+
+import top.infra.maven.extension.mavenbuild.model.ProjectBuilderActivatorModelResolver;
+
+/**
+ * Pre-warm models of reactor modules (see {@link ProjectBuilderActivatorModelResolver#prewarm(java.io.File)}).
+ * <p/>
+ * Models are keyed by user properties, so this runs after {@link MavenGoalEditorEventAware} merged its properties
+ * into project building request, contexts of the real build then find the same models.
+ */
+@Named
+@Singleton
+public class ModelPrewarmEventAware implements MavenEventAware {
+
+    public static final int ORDER_MODEL_PREWARM = ORDER_DOCKER + 1;
+
+    private final ProjectBuilderActivatorModelResolver resolver;
+
+    @Inject
+    public ModelPrewarmEventAware(
+        final ProjectBuilderActivatorModelResolver resolver
+    ) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER_MODEL_PREWARM;
+    }
+
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Collections.singletonList(MavenGoalEditorEventAware.class));
+    }
+
+    @Override
+    public void onProjectBuildingRequest(
+        final MavenExecutionRequest mavenExecution,
+        final ProjectBuildingRequest projectBuilding,
+        final CiOptionAccessor ciOpts
+    ) {
+        if (mavenExecution.getPom() != null) {
+            this.resolver.prewarm(mavenExecution.getPom());
+        }
+    }
+}
@@ -3,6 +3,10 @@ package top.infra.maven.extension.mavenbuild;
 import static top.infra.maven.extension.mavenbuild.utils.MavenUtils.profileId;
 import static top.infra.maven.extension.mavenbuild.utils.MavenUtils.projectName;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
 import javax.inject.Inject;
 
 import org.apache.maven.model.Model;
@@ -30,6 +34,27 @@ public class MultiModuleRootActivator extends AbstractCustomActivator {
         this.projectInfoBean = projectInfoBean;
     }
 
+    /**
+     * Coordinates only.
+     */
+    @Override
+    protected Optional<List<String>> modelProperties() {
+        return Optional.of(Collections.emptyList());
+    }
+
+    /**
+     * Root project and project coordinates.
+     */
+    @Override
+    protected Optional<String> decisionInputs(final Profile profile, final ProfileActivationContext context) {
+        final Optional<ReactorCoordinateIndex.Module> module = this.projectInfoBean.getReactorIndex().find(context.getProjectDirectory());
+        if (module.isPresent()) {
+            return module.map(found -> String.format("root=%s,project=%s", found.isRoot(), found));
+        }
+        return this.rawModel(context, Collections.emptyList())
+            .map(model -> String.format("root=%s,project=%s", this.projectInfoBean.getProjectInfo(), model.getId()));
+    }
+
     @Override
     protected String getName() {
         return "MultiModuleRootActivator";
@@ -49,13 +74,21 @@ public class MultiModuleRootActivator extends AbstractCustomActivator {
             //         this.getName(), projectName(context), profileId(profile)));
             // }
 
-            final MavenProjectInfo rootProjectInfo = this.projectInfoBean.getProjectInfo();
+            final Optional<ReactorCoordinateIndex.Module> module = this.projectInfoBean.getReactorIndex()
+                .find(context.getProjectDirectory());
+            if (module.isPresent()) {
+                result = module.get().isRoot();
+            } else {
+                // not in reactor index (e.g. pom outside of <modules>), compare with root project
+                final MavenProjectInfo rootProjectInfo = this.projectInfoBean.getProjectInfo();
 
-            if (logger.isDebugEnabled()) {
-                logger.debug(String.format("%s rootProjectInfo: [%s], model: [%s]", this.getName(), rootProjectInfo, model));
-            }
+                if (logger.isDebugEnabled()) {
+                    logger.debug(String.format("%s rootProjectInfo: [%s], model: [%s]", this.getName(), rootProjectInfo, model));
+                }
 
-            result = rootProjectInfo != null && (rootProjectInfo.idEquals(model) || rootProjectInfo.idEqualsExceptInheritedGroupId(model));
+                result = rootProjectInfo != null
+                    && (rootProjectInfo.idEquals(model) || rootProjectInfo.idEqualsExceptInheritedGroupId(model));
+            }
         } else {
             result = false;
 
@@ -70,6 +103,6 @@ public class MultiModuleRootActivator extends AbstractCustomActivator {
 
     @Override
     public boolean supported(final Profile profile) {
-        return profile.getId().contains("multi_module_root_only");
+        return ProfileIdClassifier.classify(profile.getId()).isMultiModuleRootOnly();
     }
 }
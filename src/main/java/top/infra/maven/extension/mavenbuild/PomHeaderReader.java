@@ -0,0 +1,152 @@
+package top.infra.maven.extension.mavenbuild;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming (StAX) reader of pom coordinates (groupId, artifactId, packaging, version and the parent block).
+ * <p/>
+ * Stops as soon as all coordinates are found or the header ends (first element of pom body, e.g. properties, dependencies),
+ * skips other elements without building a {@link org.apache.maven.model.Model}.
+ * groupId and version are inherited from parent if absent, packaging defaults to jar.
+ * Coordinates placed after the header are not seen. Expressions (e.g. ${revision}) are not interpolated.
+ */
+final class PomHeaderReader {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = newXmlInputFactory();
+
+    /**
+     * Elements that follow coordinates in pom (conventional order), none of them contains coordinates of the project.
+     */
+    private static final Set<String> BODY_ELEMENTS = new HashSet<>(Arrays.asList(
+        "modules", "properties", "dependencyManagement", "dependencies", "repositories", "pluginRepositories",
+        "build", "reporting", "profiles", "distributionManagement"));
+
+    private String artifactId;
+    private String groupId;
+    private String packaging;
+    private String version;
+
+    private String parentGroupId;
+    private String parentVersion;
+
+    private PomHeaderReader() {
+    }
+
+    private static XMLInputFactory newXmlInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        return factory;
+    }
+
+    /**
+     * Read coordinates of pom.
+     *
+     * @param pomFile pom file
+     * @return projectInfo, empty if pom has no artifactId
+     * @throws IOException        on read error
+     * @throws XMLStreamException on malformed pom
+     */
+    static Optional<MavenProjectInfo> read(final File pomFile) throws IOException, XMLStreamException {
+        final PomHeaderReader header = new PomHeaderReader();
+        try (final InputStream inputStream = Files.newInputStream(pomFile.toPath())) {
+            final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            try {
+                header.readProject(reader);
+            } finally {
+                reader.close();
+            }
+        }
+
+        return Optional.ofNullable(header.artifactId).map(artifactId -> new MavenProjectInfo(
+            artifactId,
+            header.groupId != null ? header.groupId : header.parentGroupId,
+            header.packaging != null ? header.packaging : "jar",
+            header.version != null ? header.version : header.parentVersion
+        ));
+    }
+
+    private void readProject(final XMLStreamReader reader) throws XMLStreamException {
+        if (reader.nextTag() != XMLStreamConstants.START_ELEMENT || !"project".equals(reader.getLocalName())) {
+            throw new XMLStreamException("Expected <project>", reader.getLocation());
+        }
+
+        while (!this.complete() && reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (BODY_ELEMENTS.contains(reader.getLocalName())) {
+                break; // missing coordinates are inherited or default
+            }
+            switch (reader.getLocalName()) {
+                case "artifactId":
+                    this.artifactId = text(reader);
+                    break;
+                case "groupId":
+                    this.groupId = text(reader);
+                    break;
+                case "packaging":
+                    this.packaging = text(reader);
+                    break;
+                case "version":
+                    this.version = text(reader);
+                    break;
+                case "parent":
+                    this.readParent(reader);
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+    }
+
+    private void readParent(final XMLStreamReader reader) throws XMLStreamException {
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "groupId":
+                    this.parentGroupId = text(reader);
+                    break;
+                case "version":
+                    this.parentVersion = text(reader);
+                    break;
+                default:
+                    skip(reader);
+                    break;
+            }
+        }
+    }
+
+    private boolean complete() {
+        return this.artifactId != null && this.groupId != null && this.packaging != null && this.version != null;
+    }
+
+    private static String text(final XMLStreamReader reader) throws XMLStreamException {
+        return reader.getElementText().trim();
+    }
+
+    /**
+     * Skip current element and its children.
+     */
+    private static void skip(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
@@ -6,9 +6,11 @@ import static top.infra.maven.extension.mavenbuild.utils.SystemUtils.systemUserH
 import java.io.File;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
 
 import javax.inject.Inject;
@@ -53,6 +55,11 @@ public class PrintInfoEventAware implements MavenEventAware {
         return ORDER_PRINT_INFO;
     }
 
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Collections.emptyList());
+    }
+
     @Override
     public void onInit(final Context context) {
         if (logger.isInfoEnabled()) {
@@ -0,0 +1,116 @@
+package top.infra.maven.extension.mavenbuild;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Attributes encoded in profile id by naming conventions, extracted in one scan of the id (cached per id).
+ * <p/>
+ * Conventions (last occurrence wins, same as the regular expressions they replace):
+ * <ul>
+ * <li>java version: 'java', optional '-', digits, e.g. java8, java-11-without-groovy (was ".*java[-]?(\d+)[-]?.*")</li>
+ * <li>infrastructure: 'infrastructure_', word characters, e.g. infrastructure_ossrh-site (was ".*infrastructure_(\w+)[-]?.*")</li>
+ * <li>multi module root only: contains 'multi_module_root_only'</li>
+ * </ul>
+ */
+public final class ProfileIdClassifier {
+
+    private static final String JAVA = "java";
+    private static final String INFRASTRUCTURE = "infrastructure_";
+    private static final String MULTI_MODULE_ROOT_ONLY = "multi_module_root_only";
+
+    private static final Map<String, ProfileIdClassifier> CLASSIFIED = new ConcurrentHashMap<>();
+
+    private final Optional<Integer> javaVersion;
+
+    private final Optional<String> infrastructure;
+
+    private final boolean multiModuleRootOnly;
+
+    private ProfileIdClassifier(final Integer javaVersion, final String infrastructure, final boolean multiModuleRootOnly) {
+        this.javaVersion = Optional.ofNullable(javaVersion);
+        this.infrastructure = Optional.ofNullable(infrastructure);
+        this.multiModuleRootOnly = multiModuleRootOnly;
+    }
+
+    public static ProfileIdClassifier classify(final String id) {
+        return CLASSIFIED.computeIfAbsent(id, ProfileIdClassifier::scan);
+    }
+
+    private static ProfileIdClassifier scan(final String id) {
+        Integer javaVersion = null;
+        String infrastructure = null;
+        boolean multiModuleRootOnly = false;
+
+        final int length = id.length();
+        for (int idx = 0; idx < length; idx++) {
+            switch (id.charAt(idx)) {
+                case 'j':
+                    if (id.startsWith(JAVA, idx)) {
+                        int start = idx + JAVA.length();
+                        if (start < length && id.charAt(start) == '-') {
+                            start++;
+                        }
+                        final int end = skip(id, start, true);
+                        if (end > start) {
+                            javaVersion = Integer.parseInt(id.substring(start, end));
+                        }
+                    }
+                    break;
+                case 'i':
+                    if (id.startsWith(INFRASTRUCTURE, idx)) {
+                        final int start = idx + INFRASTRUCTURE.length();
+                        final int end = skip(id, start, false);
+                        if (end > start) {
+                            infrastructure = id.substring(start, end);
+                        }
+                    }
+                    break;
+                case 'm':
+                    if (!multiModuleRootOnly && id.startsWith(MULTI_MODULE_ROOT_ONLY, idx)) {
+                        multiModuleRootOnly = true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return new ProfileIdClassifier(javaVersion, infrastructure, multiModuleRootOnly);
+    }
+
+    /**
+     * End of digits (or word characters) run.
+     */
+    private static int skip(final String id, final int start, final boolean digits) {
+        int end = start;
+        while (end < id.length() && (digits ? isDigit(id.charAt(end)) : isWordChar(id.charAt(end)))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isDigit(final char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    /**
+     * Same as regex '\w'.
+     */
+    private static boolean isWordChar(final char ch) {
+        return isDigit(ch) || (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || ch == '_';
+    }
+
+    public Optional<Integer> getJavaVersion() {
+        return this.javaVersion;
+    }
+
+    public Optional<String> getInfrastructure() {
+        return this.infrastructure;
+    }
+
+    public boolean isMultiModuleRootOnly() {
+        return this.multiModuleRootOnly;
+    }
+}
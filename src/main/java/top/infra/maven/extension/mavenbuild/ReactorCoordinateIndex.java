@@ -0,0 +1,152 @@
+package top.infra.maven.extension.mavenbuild;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+
+/**
+ * Coordinates of all modules in the reactor (by project directory and by groupId:artifactId),
+ * with parent links and root flag. Taken from raw models already read for module discovery
+ * (see {@link top.infra.maven.extension.mavenbuild.model.RawModelResolver#moduleModels(File)}), no model is built.
+ */
+public final class ReactorCoordinateIndex {
+
+    private static final ReactorCoordinateIndex EMPTY = new ReactorCoordinateIndex(Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<File, Module> byDirectory;
+
+    private final Map<String, Module> byKey;
+
+    private ReactorCoordinateIndex(final Map<File, Module> byDirectory, final Map<String, Module> byKey) {
+        this.byDirectory = byDirectory;
+        this.byKey = byKey;
+    }
+
+    public static ReactorCoordinateIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Index coordinates of modules, groupId and version are inherited from parent if absent (not interpolated).
+     *
+     * @param modules pom.xml files of reactor and their raw models, execution root first
+     * @return index
+     */
+    public static ReactorCoordinateIndex build(final List<Entry<File, Model>> modules) {
+        if (modules.isEmpty()) {
+            return EMPTY;
+        }
+
+        final File root = directory(modules.get(0).getKey());
+        final Map<File, Module> byDirectory = new HashMap<>();
+        final Map<String, Module> byKey = new HashMap<>();
+        for (final Entry<File, Model> pomAndModel : modules) {
+            final Model model = pomAndModel.getValue();
+            if (model.getArtifactId() == null) {
+                continue;
+            }
+
+            final Parent parent = model.getParent();
+            final MavenProjectInfo projectInfo = new MavenProjectInfo(
+                model.getArtifactId(),
+                model.getGroupId() != null ? model.getGroupId() : parent != null ? parent.getGroupId() : null,
+                model.getPackaging() != null ? model.getPackaging() : "jar",
+                model.getVersion() != null ? model.getVersion() : parent != null ? parent.getVersion() : null
+            );
+            final String parentKey = parent != null && parent.getArtifactId() != null
+                ? parent.getGroupId() + ":" + parent.getArtifactId()
+                : null;
+            final File directory = directory(pomAndModel.getKey());
+            final Module module = new Module(directory, projectInfo, parentKey, directory.equals(root));
+            byDirectory.put(directory, module);
+            byKey.put(module.getKey(), module);
+        }
+        return new ReactorCoordinateIndex(byDirectory, byKey);
+    }
+
+    private static File directory(final File pomFile) {
+        return pomFile.getAbsoluteFile().toPath().normalize().getParent().toFile();
+    }
+
+    /**
+     * Find module.
+     *
+     * @param projectDirectory e.g. ProfileActivationContext.getProjectDirectory()
+     * @return module, empty if not in reactor (or index not built)
+     */
+    public Optional<Module> find(final File projectDirectory) {
+        return projectDirectory != null
+            ? Optional.ofNullable(this.byDirectory.get(projectDirectory.getAbsoluteFile().toPath().normalize().toFile()))
+            : Optional.empty();
+    }
+
+    public Optional<Module> find(final String groupId, final String artifactId) {
+        return Optional.ofNullable(this.byKey.get(groupId + ":" + artifactId));
+    }
+
+    /**
+     * Parent module in reactor.
+     *
+     * @param module module
+     * @return parent, empty if module has no parent or parent is not in reactor
+     */
+    public Optional<Module> parent(final Module module) {
+        return module.parentKey != null ? Optional.ofNullable(this.byKey.get(module.parentKey)) : Optional.empty();
+    }
+
+    public boolean isEmpty() {
+        return this.byDirectory.isEmpty();
+    }
+
+    public int size() {
+        return this.byDirectory.size();
+    }
+
+    public static final class Module {
+
+        private final File directory;
+        private final MavenProjectInfo projectInfo;
+        private final String parentKey;
+        private final boolean root;
+
+        private Module(final File directory, final MavenProjectInfo projectInfo, final String parentKey, final boolean root) {
+            this.directory = directory;
+            this.projectInfo = projectInfo;
+            this.parentKey = parentKey;
+            this.root = root;
+        }
+
+        public File getDirectory() {
+            return this.directory;
+        }
+
+        /**
+         * groupId:artifactId.
+         *
+         * @return key
+         */
+        public String getKey() {
+            return this.projectInfo.getGroupId() + ":" + this.projectInfo.getArtifactId();
+        }
+
+        public MavenProjectInfo getProjectInfo() {
+            return this.projectInfo;
+        }
+
+        public boolean isRoot() {
+            return this.root;
+        }
+
+        @Override
+        public String toString() {
+            return this.projectInfo.toString();
+        }
+    }
+}
@@ -48,6 +48,11 @@ public class SystemToUserPropertiesEventAware implements MavenEventAware {
         return ORDER_SYSTEM_TO_USER_PROPERTIES;
     }
 
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Collections.singletonList(PrintInfoEventAware.class));
+    }
+
     @Override
     public void onInit(final Context context) {
         final Properties systemProperties = MavenUtils.systemProperties(context);
@@ -1,17 +1,24 @@
 package top.infra.maven.extension.mavenbuild.model;
 
 import java.io.File;
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Profile;
 import org.apache.maven.model.building.ModelBuilder;
+import org.apache.maven.model.building.ModelBuildingException;
 import org.apache.maven.model.building.ModelBuildingRequest;
 import org.apache.maven.model.building.ModelBuildingResult;
 import org.apache.maven.model.profile.ProfileActivationContext;
 
+import top.infra.maven.extension.mavenbuild.utils.ComputeOnceMap;
+import top.infra.maven.extension.mavenbuild.utils.SupportFunction;
+
 public abstract class AbstractActivatorModelResolver implements ActivatorModelResolver {
 
     protected final org.codehaus.plexus.logging.Logger logger;
@@ -23,9 +30,20 @@ public abstract class AbstractActivatorModelResolver implements ActivatorModelRe
     private final ModelBuilder modelBuilder;
 
     /**
-     * Remember processed profile pom.xml file to control recursion.
+     * Effective model by pom.xml file and properties fingerprint, shared by all profiles of the pom.xml.
+     * Built once, other threads (parallel builds) wait for it. Value is empty if build failed.
+     */
+    private final ComputeOnceMap<String, Optional<Model>> modelMemento;
+
+    /**
+     * Per-profile decision on top of {@link #modelMemento}.
+     */
+    private final Map<String, Optional<Model>> profileMemento;
+
+    /**
+     * Properties fingerprint by context, all profiles of a pom.xml are evaluated against the same context.
      */
-    private final Map<String, Model> profileMemento;
+    private final Map<ProfileActivationContext, PropertiesFingerprint> fingerprints;
 
     private final boolean verbose;
 
@@ -35,7 +53,9 @@ public abstract class AbstractActivatorModelResolver implements ActivatorModelRe
     ) {
         this.logger = logger;
         this.modelBuilder = modelBuilder;
-        this.profileMemento = new LinkedHashMap<>();
+        this.modelMemento = new ComputeOnceMap<>();
+        this.profileMemento = new ConcurrentHashMap<>();
+        this.fingerprints = Collections.synchronizedMap(new WeakHashMap<>());
 
         this.verbose = logger.isDebugEnabled();
     }
@@ -45,79 +65,96 @@ public abstract class AbstractActivatorModelResolver implements ActivatorModelRe
      * Resolve project pom.xml model: interpolate properties and fields.
      * </p>
      * Note: invokes recursive call back to this instance.
-     * Control recursion by processing projects only once via {@link #profileMemento}.
+     * Control recursion by building each pom.xml only once via {@link #modelMemento},
+     * calls (of any profile) during the build of same pom.xml (on the building thread) get empty result.
      */
     @Override
     public Optional<Model> resolveModel(final Profile profile, final ProfileActivationContext context) {
-        final File pomFile = this.projectPOM(context);
-
         if ("source".equals(profile.getSource())) {
-            this.registerMemento(profile, pomFile, null);
             if (this.verbose) {
                 logger.info(String.format("profile [%s] source is 'source'.", profile));
             }
             return Optional.empty();
         }
 
-        // if (profile.getBuild() == null) {
-        //     this.registerMemento(profile, pomFile, null);
-        //     if (this.verbose) {
-        //         logger.info(String.format("build config not found for profile [%s].", profile));
-        //     }
-        //     return Optional.empty();
-        // }
-
+        final File pomFile = this.projectPOM(context);
         if (pomFile == null) {
-            this.registerMemento(profile, null, null);
             if (this.verbose) {
                 logger.info(String.format("pomFile not found for profile [%s].", profile));
             }
             return Optional.empty();
         }
 
-        final Model modelFound;
-        final boolean doResolve;
-        if (this.hasMemento(profile, pomFile)) {
-            modelFound = this.getMemento(profile, pomFile);
-            doResolve = false;
-            if (this.verbose) {
-                logger.info(String.format("resolveModel [%s] for profile [%s]. false", pomFile.getPath(), profile));
-            }
-        } else {
-            modelFound = null;
-            doResolve = true;
+        final String modelKey = this.modelKey(pomFile, context);
+        final String profileKey = String.format("%s@%s", profile, modelKey);
+        final Optional<Model> decided = this.profileMemento.get(profileKey);
+        if (decided != null) {
+            return decided;
+        }
+
+        if (this.modelMemento.isComputing(modelKey)) {
+            // do not remember decisions made while the model is being built
             if (this.verbose) {
-                logger.info(String.format("resolveModel [%s] for profile [%s]. true", pomFile.getPath(), profile));
+                logger.info(String.format("resolveModel [%s] for profile [%s]. building", pomFile.getPath(), profile));
             }
+            return Optional.empty();
         }
 
-        if (!this.hasMemento(profile, pomFile)) {
-            this.registerMemento(profile, pomFile, null);
+        final Optional<Model> result = this.modelMemento.get(
+            modelKey,
+            () -> this.buildModel(String.format("profile [%s]", profile), context, pomFile),
+            Optional::empty
+        );
+        this.profileMemento.put(profileKey, result);
+        return result;
+    }
+
+    /**
+     * Build effective model of project in context ahead of profile activation (if not built yet).
+     *
+     * @param context context
+     * @return effective model
+     */
+    protected Optional<Model> prewarmModel(final ProfileActivationContext context) {
+        final File pomFile = this.projectPOM(context);
+        if (pomFile == null) {
+            return Optional.empty();
         }
+        return this.modelMemento.get(this.modelKey(pomFile, context), () -> this.buildModel("pre-warm", context, pomFile), Optional::empty);
+    }
 
-        if (doResolve) {
-            // if (logger.isDebugEnabled()) {
-            //     context.getProjectProperties().forEach((k, v) -> logger.debug(String.format("projectProperty %s => %s", k, v)));
-            //     context.getUserProperties().forEach((k, v) -> logger.debug(String.format("%s => %s", k, v)));
-            //     context.getSystemProperties().forEach((k, v) -> logger.debug(String.format("%s => %s", k, v)));
-            // }
-
-            try {
-                final ModelBuildingRequest buildingRequest = this.modelBuildingRequest(context, pomFile);
-                final ModelBuildingResult buildingResult = this.modelBuilder.build(buildingRequest);
-                return Optional.of(this.registerMemento(profile, pomFile, buildingResult.getEffectiveModel()));
-            } catch (final Exception error) {
-                logger.error(
-                    String.format("resolveModel [%s] model for profile [%s] error. %s", pomFile.getPath(), profile, error.getMessage()),
-                    error
-                );
-                return Optional.empty();
-            }
-        } else {
-            return Optional.ofNullable(modelFound);
+    private Optional<Model> buildModel(final String cause, final ProfileActivationContext context, final File pomFile) {
+        if (this.verbose) {
+            logger.info(String.format("resolveModel [%s] for %s. true", pomFile.getPath(), cause));
+        }
+        try {
+            final ModelBuildingRequest buildingRequest = this.modelBuildingRequest(context, pomFile);
+            return this.effectiveModel(buildingRequest);
+        } catch (final Exception error) {
+            logger.error(
+                String.format("resolveModel [%s] model for %s error. %s", pomFile.getPath(), cause, error.getMessage()),
+                error
+            );
+            return Optional.empty();
         }
     }
 
+    /**
+     * Build effective model, subclasses may find it elsewhere (e.g. on disk).
+     *
+     * @param request model building request
+     * @return effective model
+     * @throws ModelBuildingException on error
+     */
+    protected Optional<Model> effectiveModel(final ModelBuildingRequest request) throws ModelBuildingException {
+        final ModelBuildingResult buildingResult = this.modelBuilder.build(request);
+        return Optional.ofNullable(buildingResult.getEffectiveModel());
+    }
+
+    protected ModelBuilder getModelBuilder() {
+        return this.modelBuilder;
+    }
+
     protected abstract ModelBuildingRequest modelBuildingRequest(ProfileActivationContext context, File pomFile);
 
     /**
@@ -140,36 +177,47 @@ public abstract class AbstractActivatorModelResolver implements ActivatorModelRe
     }
 
     /**
-     * Check if project was already processed.
+     * Key of effective model: pom.xml file and digest of properties (that may be referenced by pom.xml).
      */
-    private boolean hasMemento(final Profile profile, final File pomFile) {
-        final String key = mementoKey(profile, pomFile);
-        final boolean result = pomFile != null && this.profileMemento.containsKey(key);
-        // if (logger.isDebugEnabled()) {
-        //     logger.debug(String.format("hasMemento(%s, %s) key %s, result %s", profile, pomFile, key, result));
-        // }
-        return result;
+    private String modelKey(final File pomFile, final ProfileActivationContext context) {
+        final PropertiesFingerprint found = this.fingerprints.get(context);
+        final PropertiesFingerprint fingerprint;
+        if (found != null && found.isOf(context)) {
+            fingerprint = found;
+        } else {
+            fingerprint = new PropertiesFingerprint(context);
+            this.fingerprints.put(context, fingerprint);
+        }
+        return String.format("%s#%s", pomFile.getAbsolutePath(), fingerprint.digest);
     }
 
-    private Model getMemento(final Profile profile, final File pomFile) {
-        // logger.debug(String.format("getMemento(%s, %s)", profile, pomFile));
-        final String key = mementoKey(profile, pomFile);
-        return hasMemento(profile, pomFile) ? this.profileMemento.get(key) : null;
-    }
+    /**
+     * SHA-256 of sorted system and user properties of a context.
+     * Context replaces (does not modify) its properties on set, digest is kept while they are the same instances.
+     */
+    private static final class PropertiesFingerprint {
 
-    private Model registerMemento(final Profile profile, final File pomFile, final Model model) {
-        if (pomFile != null) {
-            // if (logger.isDebugEnabled()) {
-            //     logger.debug(String.format("registerMemento(%s, %s)", profile, pomFile));
-            // }
-            final String key = mementoKey(profile, pomFile);
-            this.profileMemento.put(key, model);
+        private final Map<String, String> systemProperties;
+        private final Map<String, String> userProperties;
+        private final String digest;
+
+        PropertiesFingerprint(final ProfileActivationContext context) {
+            this.systemProperties = context.getSystemProperties();
+            this.userProperties = context.getUserProperties();
+
+            final StringBuilder values = new StringBuilder();
+            append(values, "system", this.systemProperties);
+            append(values, "user", this.userProperties);
+            this.digest = SupportFunction.sha256(values.toString());
         }
-        return model;
-    }
 
-    private static String mementoKey(final Profile profile, final File pomFile) {
-        final String pom = pomFile != null ? pomFile.getAbsolutePath() : "";
-        return String.format("%s@%s", profile, pom);
+        private static void append(final StringBuilder values, final String scope, final Map<String, String> properties) {
+            new TreeMap<>(properties).forEach((name, value) ->
+                values.append(scope).append(':').append(name).append('=').append(value).append('\n'));
+        }
+
+        boolean isOf(final ProfileActivationContext context) {
+            return context.getSystemProperties() == this.systemProperties && context.getUserProperties() == this.userProperties;
+        }
     }
 }
@@ -0,0 +1,375 @@
+package top.infra.maven.extension.mavenbuild.model;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingResult;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import top.infra.exception.RuntimeIOException;
+import top.infra.maven.extension.mavenbuild.utils.FileUtils;
+import top.infra.maven.extension.mavenbuild.utils.SupportFunction;
+import top.infra.maven.logging.Logger;
+
+/**
+ * Effective models persisted across builds (under CACHE_INFRASTRUCTURE_PATH).
+ * <p/>
+ * An entry is a gzipped properties header (pom.xml files of parent chain with their sha256, referenced system properties
+ * with sha256 of their values) followed by the model in pom.xml format, no java serialization is involved.
+ * <p/>
+ * An entry is found by pom.xml file and values of user properties referenced by the parent chain (names are kept in a
+ * per pom.xml names file), and is valid while content of every pom.xml in the parent chain
+ * and values of system properties referenced by them (plus JDK and OS) are unchanged.
+ * Models that depend on mutable or unknown inputs (SNAPSHOT parents or imported SNAPSHOT boms from repository,
+ * file activation) are not persisted.
+ * <p/>
+ * Files not used for {@link #MAX_AGE_DAYS} days are removed, at most {@link #MAX_FILES} files are kept.
+ */
+public class DiskModelCache {
+
+    private static final int FORMAT = 2;
+
+    private static final String HEADER_POM = "pom.";
+    private static final String HEADER_PROPERTIES = "properties";
+    private static final String HEADER_PROPERTIES_SHA256 = "properties.sha256";
+
+    private static final int MAX_HEADER_LENGTH = 1024 * 1024;
+
+    private static final int MAX_AGE_DAYS = 30;
+
+    /**
+     * Entries and names files, most recently used ones are kept.
+     */
+    private static final int MAX_FILES = 4096;
+
+    /**
+     * Properties may be referenced implicitly by jdk and os profile activation.
+     */
+    private static final List<String> IMPLICIT_PROPERTIES = Arrays.asList(
+        "java.version", "java.vendor", "os.name", "os.arch", "os.version");
+
+    private static final Pattern PATTERN_EXPRESSION = Pattern.compile("\\$\\{([^}]+)}");
+
+    /**
+     * Property profile activation: <code>&lt;name&gt;!foo&lt;/name&gt;</code>.
+     */
+    private static final Pattern PATTERN_NAME = Pattern.compile("<name>\\s*!?([^<\\s]+)\\s*</name>");
+
+    private final Logger logger;
+
+    private final Path directory;
+
+    private final AtomicBoolean pruned;
+
+    public DiskModelCache(final Logger logger, final Path cacheDirectory) {
+        this.logger = logger;
+        this.directory = cacheDirectory.resolve("models");
+        this.pruned = new AtomicBoolean(false);
+    }
+
+    /**
+     * Find valid model.
+     *
+     * @param request model building request
+     * @return model, empty if not found, stale or unreadable
+     */
+    public Optional<Model> get(final ModelBuildingRequest request) {
+        final Path namesFile = this.namesFile(request);
+        if (!namesFile.toFile().exists()) {
+            return Optional.empty();
+        }
+        final Path file;
+        try {
+            file = this.entryFile(request, new String(Files.readAllBytes(namesFile), UTF_8).split("\n"));
+        } catch (final IOException ex) {
+            logger.warn(String.format("Error read model cache [%s]. %s", namesFile, ex.getMessage()));
+            return Optional.empty();
+        }
+        if (!file.toFile().exists()) {
+            return Optional.empty();
+        }
+
+        try (final DataInputStream inputStream = new DataInputStream(new GZIPInputStream(Files.newInputStream(file)))) {
+            if (inputStream.readInt() != FORMAT) {
+                return Optional.empty();
+            }
+
+            final int headerLength = inputStream.readInt();
+            if (headerLength < 0 || headerLength > MAX_HEADER_LENGTH) {
+                throw new IOException(String.format("Invalid header length %s", headerLength));
+            }
+            final byte[] headerBytes = new byte[headerLength];
+            inputStream.readFully(headerBytes);
+            final Properties header = new Properties();
+            header.load(new ByteArrayInputStream(headerBytes));
+
+            for (final String name : header.stringPropertyNames()) {
+                if (!name.startsWith(HEADER_POM)) {
+                    continue;
+                }
+                final Path pomFile = new File(name.substring(HEADER_POM.length())).toPath();
+                if (!pomFile.toFile().exists() || !header.getProperty(name).equals(SupportFunction.sha256(Files.readAllBytes(pomFile)))) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(String.format("DiskModelCache [%s] stale, [%s] changed.", request.getPomFile(), pomFile));
+                    }
+                    return Optional.empty();
+                }
+            }
+
+            final List<String> propertyNames = Arrays.asList(header.getProperty(HEADER_PROPERTIES, "").split("\n"));
+            if (!propertiesHash(propertyNames, request.getSystemProperties()).equals(header.getProperty(HEADER_PROPERTIES_SHA256))) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug(String.format("DiskModelCache [%s] stale, system properties changed.", request.getPomFile()));
+                }
+                return Optional.empty();
+            }
+
+            final Model model = new MavenXpp3Reader().read(inputStream, false);
+            model.setPomFile(request.getPomFile());
+            touch(namesFile);
+            touch(file);
+            return Optional.of(model);
+        } catch (final IOException | XmlPullParserException | IllegalArgumentException ex) {
+            logger.warn(String.format("Error read model cache [%s]. %s", file, ex.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Persist effective model of result if it depends on known inputs only.
+     *
+     * @param request model building request
+     * @param result  model building result
+     */
+    public void put(final ModelBuildingRequest request, final ModelBuildingResult result) {
+        final Model effectiveModel = result.getEffectiveModel();
+        if (effectiveModel == null) {
+            return;
+        }
+
+        final Path namesFile = this.namesFile(request);
+        try {
+            final Properties header = new Properties();
+            final TreeSet<String> propertyNames = new TreeSet<>(IMPLICIT_PROPERTIES);
+            for (final String modelId : result.getModelIds()) {
+                final Model rawModel = result.getRawModel(modelId);
+                if (modelId.isEmpty() || rawModel == null) {
+                    continue; // super pom
+                }
+
+                final boolean fileActivation = rawModel.getProfiles().stream()
+                    .anyMatch(profile -> profile.getActivation() != null && profile.getActivation().getFile() != null);
+                if (fileActivation) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(String.format("DiskModelCache skip [%s], [%s] has file activation.", request.getPomFile(), modelId));
+                    }
+                    return;
+                }
+
+                final Optional<String> mutableImport = mutableImport(rawModel, effectiveModel);
+                if (mutableImport.isPresent()) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(String.format("DiskModelCache skip [%s], [%s] imports [%s].",
+                            request.getPomFile(), modelId, mutableImport.get()));
+                    }
+                    return;
+                }
+
+                if (rawModel.getPomFile() != null) {
+                    final byte[] content = Files.readAllBytes(rawModel.getPomFile().toPath());
+                    header.setProperty(HEADER_POM + rawModel.getPomFile().getAbsolutePath(), SupportFunction.sha256(content));
+                    propertyNames.addAll(referencedProperties(new String(content, UTF_8)));
+                } else if (modelId.endsWith("-SNAPSHOT")) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(String.format("DiskModelCache skip [%s], parent [%s] is a snapshot.", request.getPomFile(), modelId));
+                    }
+                    return;
+                } else {
+                    // released parent from repository, immutable, identified by id of its child's parent element
+                    final StringWriter pomXml = new StringWriter();
+                    new MavenXpp3Writer().write(pomXml, rawModel);
+                    propertyNames.addAll(referencedProperties(pomXml.toString()));
+                }
+            }
+            final Path file = this.entryFile(request, propertyNames.toArray(new String[0]));
+            header.setProperty(HEADER_PROPERTIES, String.join("\n", propertyNames));
+            header.setProperty(HEADER_PROPERTIES_SHA256, propertiesHash(propertyNames, request.getSystemProperties()));
+
+            final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+            header.store(headerBytes, null);
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final DataOutputStream outputStream = new DataOutputStream(new GZIPOutputStream(bytes))) {
+                outputStream.writeInt(FORMAT);
+                outputStream.writeInt(headerBytes.size());
+                headerBytes.writeTo(outputStream);
+                new MavenXpp3Writer().write(outputStream, effectiveModel);
+            }
+
+            Files.createDirectories(file.getParent());
+            FileUtils.writeFileAtomically(file, bytes.toByteArray());
+            Files.createDirectories(namesFile.getParent());
+            FileUtils.writeFileAtomically(namesFile, String.join("\n", propertyNames).getBytes(UTF_8));
+        } catch (final IOException | RuntimeIOException ex) {
+            logger.warn(String.format("Error write model cache of [%s]. %s", request.getPomFile(), ex.getMessage()));
+        }
+
+        if (this.pruned.compareAndSet(false, true)) {
+            this.prune();
+        }
+    }
+
+    /**
+     * Remove files not used for {@link #MAX_AGE_DAYS} days and least recently used ones beyond {@link #MAX_FILES}.
+     * Files are shared by concurrent builds, files removed by others are ignored.
+     */
+    void prune() {
+        if (!this.directory.toFile().isDirectory()) {
+            return;
+        }
+
+        final long expire = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(MAX_AGE_DAYS);
+        try (final Stream<Path> files = Files.walk(this.directory, 2)) {
+            final List<Map.Entry<Path, Long>> recentFirst = files
+                .filter(Files::isRegularFile)
+                .map(file -> SupportFunction.newTuple(file, file.toFile().lastModified()))
+                .sorted(Comparator.comparing((Map.Entry<Path, Long> entry) -> entry.getValue()).reversed())
+                .collect(Collectors.toList());
+
+            int removed = 0;
+            for (int idx = 0; idx < recentFirst.size(); idx++) {
+                final Map.Entry<Path, Long> entry = recentFirst.get(idx);
+                if (idx >= MAX_FILES || entry.getValue() < expire) {
+                    Files.deleteIfExists(entry.getKey());
+                    removed++;
+                }
+            }
+            if (removed > 0 && logger.isInfoEnabled()) {
+                logger.info(String.format("DiskModelCache removed %s of %s files.", removed, recentFirst.size()));
+            }
+        } catch (final IOException | UncheckedIOException ex) {
+            logger.warn(String.format("Error prune model cache [%s]. %s", this.directory, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Mark file as used, at most once a day to avoid a write on every hit.
+     */
+    private static void touch(final Path file) {
+        final long now = System.currentTimeMillis();
+        if (now - file.toFile().lastModified() > TimeUnit.DAYS.toMillis(1)) {
+            try {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(now));
+            } catch (final IOException ex) {
+                // read only cache, entry is still valid
+            }
+        }
+    }
+
+    /**
+     * Find imported bom (dependencyManagement dependency of scope import) that may change without change of pom.xml files.
+     * Released boms from repository are immutable, as released parents.
+     *
+     * @param rawModel       raw model in parent chain
+     * @param effectiveModel effective model (version expressions are looked up in its properties)
+     * @return coordinates of a SNAPSHOT bom or a bom of unknown version
+     */
+    static Optional<String> mutableImport(final Model rawModel, final Model effectiveModel) {
+        if (rawModel.getDependencyManagement() == null) {
+            return Optional.empty();
+        }
+        return rawModel.getDependencyManagement().getDependencies().stream()
+            .filter(dependency -> "import".equals(dependency.getScope()))
+            .filter(dependency -> {
+                final String version = interpolate(dependency.getVersion(), effectiveModel.getProperties());
+                return version == null || version.contains("${") || version.endsWith("-SNAPSHOT");
+            })
+            .map(Dependency::getManagementKey)
+            .findFirst();
+    }
+
+    private static String interpolate(final String value, final Properties properties) {
+        if (value == null) {
+            return null;
+        }
+        final Matcher matcher = PATTERN_EXPRESSION.matcher(value);
+        final StringBuffer result = new StringBuffer();
+        while (matcher.find()) {
+            final String found = properties.getProperty(matcher.group(1).trim());
+            matcher.appendReplacement(result, Matcher.quoteReplacement(found != null ? found : matcher.group()));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    /**
+     * Names of properties referenced by parent chain of pom.xml (as of last put).
+     */
+    private Path namesFile(final ModelBuildingRequest request) {
+        final String hash = SupportFunction.sha256(request.getPomFile().getAbsolutePath());
+        return this.directory.resolve(hash.substring(0, 2)).resolve(hash + ".names");
+    }
+
+    /**
+     * Keyed by user properties referenced only, so per build properties (e.g. build number) do not create new entries.
+     */
+    private Path entryFile(final ModelBuildingRequest request, final String[] propertyNames) {
+        final StringBuilder key = new StringBuilder(request.getPomFile().getAbsolutePath());
+        final Properties userProperties = request.getUserProperties();
+        new TreeSet<>(Arrays.asList(propertyNames)).stream()
+            .filter(name -> userProperties.getProperty(name) != null)
+            .forEach(name -> key.append('|').append(name).append('=').append(userProperties.getProperty(name)));
+        final String hash = SupportFunction.sha256(key.toString());
+        return this.directory.resolve(hash.substring(0, 2)).resolve(hash + ".model.gz");
+    }
+
+    static List<String> referencedProperties(final String pomXml) {
+        final List<String> result = new ArrayList<>();
+        for (final Pattern pattern : Arrays.asList(PATTERN_EXPRESSION, PATTERN_NAME)) {
+            final Matcher matcher = pattern.matcher(pomXml);
+            while (matcher.find()) {
+                result.add(matcher.group(1).trim());
+            }
+        }
+        return result;
+    }
+
+    private static String propertiesHash(final Iterable<String> names, final Properties systemProperties) {
+        final StringBuilder values = new StringBuilder();
+        for (final String name : names) {
+            values.append(name).append('=').append(systemProperties.getProperty(name, "")).append('\n');
+        }
+        return SupportFunction.sha256(values.toString());
+    }
+}
@@ -1,7 +1,15 @@
 package top.infra.maven.extension.mavenbuild.model;
 
+import static top.infra.maven.extension.mavenbuild.CiOption.CACHE_INFRASTRUCTURE_PATH;
+
 import java.io.File;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -10,10 +18,13 @@ import javax.inject.Singleton;
 import org.apache.maven.RepositoryUtils;
 import org.apache.maven.artifact.repository.LegacyLocalRepositoryManager;
 import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.model.Model;
 import org.apache.maven.model.building.DefaultModelBuildingRequest;
 import org.apache.maven.model.building.ModelBuilder;
+import org.apache.maven.model.building.ModelBuildingException;
 import org.apache.maven.model.building.ModelBuildingRequest;
-import org.apache.maven.model.building.ModelCache;
+import org.apache.maven.model.building.ModelBuildingResult;
+import org.apache.maven.model.profile.DefaultProfileActivationContext;
 import org.apache.maven.model.profile.ProfileActivationContext;
 import org.apache.maven.model.resolution.ModelResolver;
 import org.apache.maven.project.ProjectBuildingRequest;
@@ -23,9 +34,13 @@ import org.eclipse.aether.RequestTrace;
 import org.eclipse.aether.impl.RemoteRepositoryManager;
 import org.eclipse.aether.repository.RemoteRepository;
 
+import top.infra.maven.extension.mavenbuild.ActivationDecisionStore;
 import top.infra.maven.extension.mavenbuild.CiOptionAccessor;
+import top.infra.maven.extension.mavenbuild.CiOptionEventAware;
 import top.infra.maven.extension.mavenbuild.MavenEventAware;
 import top.infra.maven.extension.mavenbuild.MavenSettingsServersEventAware;
+import top.infra.maven.extension.mavenbuild.utils.SystemUtils;
+import top.infra.maven.logging.LoggerPlexusImpl;
 
 @Named
 @Singleton
@@ -33,7 +48,11 @@ public class ProjectBuilderActivatorModelResolver extends AbstractActivatorModel
 
     public static final int ORDER_MODEL_RESOLVER = MavenSettingsServersEventAware.ORDER_MAVEN_SETTINGS_SERVERS + 1;
 
-    private final ModelCache modelCache;
+    private final ReactorModelCache modelCache;
+
+    private final RawModelResolver rawModelResolver;
+
+    private final ActivationDecisionStore decisionStore;
 
     private final RemoteRepositoryManager repositoryManager;
 
@@ -41,6 +60,11 @@ public class ProjectBuilderActivatorModelResolver extends AbstractActivatorModel
 
     private ProjectBuildingRequest projectBuildingRequest;
 
+    /**
+     * Nullable, effective models of previous builds.
+     */
+    private DiskModelCache diskModelCache;
+
     @Inject
     public ProjectBuilderActivatorModelResolver(
         final org.codehaus.plexus.logging.Logger logger,
@@ -51,6 +75,8 @@ public class ProjectBuilderActivatorModelResolver extends AbstractActivatorModel
         super(logger, modelBuilder);
 
         this.modelCache = new ReactorModelCache();
+        this.rawModelResolver = new RawModelResolver(logger);
+        this.decisionStore = new ActivationDecisionStore(new LoggerPlexusImpl(logger));
 
         this.repositoryManager = repositoryManager;
         this.repositorySystem = repositorySystem;
@@ -88,6 +114,53 @@ public class ProjectBuilderActivatorModelResolver extends AbstractActivatorModel
         return modelBuildingRequest;
     }
 
+    @Override
+    protected Optional<Model> effectiveModel(final ModelBuildingRequest request) throws ModelBuildingException {
+        final Optional<Model> result;
+        final DiskModelCache diskCache = this.diskModelCache;
+        final Optional<Model> found = diskCache != null ? diskCache.get(request) : Optional.empty();
+        if (found.isPresent()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("effective model of [%s] found in disk cache.", request.getPomFile()));
+            }
+            result = found;
+        } else {
+            final ModelBuildingResult buildingResult = this.getModelBuilder().build(request);
+            if (diskCache != null) {
+                diskCache.put(request, buildingResult);
+            }
+            result = Optional.ofNullable(buildingResult.getEffectiveModel());
+        }
+        return result;
+    }
+
+    /**
+     * Fast path for activators that do not need effective model.
+     *
+     * @return raw model resolver
+     */
+    public RawModelResolver getRawModelResolver() {
+        return this.rawModelResolver;
+    }
+
+    /**
+     * Activation decisions of previous builds.
+     *
+     * @return decision store
+     */
+    public ActivationDecisionStore getDecisionStore() {
+        return this.decisionStore;
+    }
+
+    /**
+     * Statistics of model cache (for build log).
+     *
+     * @return stats
+     */
+    public String modelCacheStats() {
+        return this.modelCache.stats();
+    }
+
     public void setProjectBuildingRequest(final ProjectBuildingRequest projectBuildingRequest) {
         this.projectBuildingRequest = projectBuildingRequest;
     }
@@ -97,6 +170,11 @@ public class ProjectBuilderActivatorModelResolver extends AbstractActivatorModel
         return ORDER_MODEL_RESOLVER;
     }
 
+    @Override
+    public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+        return Optional.of(Collections.singletonList(CiOptionEventAware.class));
+    }
+
     @Override
     public void onProjectBuildingRequest(
         final MavenExecutionRequest mavenExecution,
@@ -104,5 +182,57 @@ public class ProjectBuilderActivatorModelResolver extends AbstractActivatorModel
         final CiOptionAccessor ciOpts
     ) {
         this.setProjectBuildingRequest(projectBuilding);
+        this.diskModelCache = ciOpts.getOption(CACHE_INFRASTRUCTURE_PATH)
+            .map(cacheDirectory -> new DiskModelCache(new LoggerPlexusImpl(logger), Paths.get(cacheDirectory)))
+            .orElse(null);
+        ciOpts.getOption(CACHE_INFRASTRUCTURE_PATH).ifPresent(cacheDirectory -> this.decisionStore.load(Paths.get(cacheDirectory)));
+    }
+
+    /**
+     * Resolve models of all reactor modules in parallel before projects are built one by one.
+     * Raw models of all modules are read, effective models are built only for modules raw models are not enough for.
+     * <p/>
+     * Models are keyed by properties of project building request, call this after all properties are merged into it.
+     *
+     * @param rootPomFile pom.xml of execution root
+     */
+    public void prewarm(final File rootPomFile) {
+        final List<File> modules = this.rawModelResolver.modules(rootPomFile);
+        if (modules.size() < 2) {
+            return;
+        }
+
+        final long start = System.currentTimeMillis();
+        // workers build models and look up components, they need the extension realm as context classloader
+        final ForkJoinPool pool = SystemUtils.newForkJoinPool();
+        try {
+            final List<File> built = pool.submit(() -> modules.parallelStream()
+                .filter(pomFile -> {
+                    final ProfileActivationContext context = this.prewarmContext(pomFile);
+                    return !this.rawModelResolver.resolveModel(context, Collections.emptyList()).isPresent()
+                        && this.prewarmModel(context).isPresent();
+                })
+                .collect(Collectors.toList())
+            ).get();
+
+            logger.info(String.format("Pre-warmed models of %s modules (%s effective models built) in %s ms.",
+                modules.size(), built.size(), System.currentTimeMillis() - start));
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException ex) {
+            logger.warn(String.format("Error pre-warm models. %s", ex.getMessage()), ex);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Context that matches the one DefaultModelBuilder creates for the project (same model key).
+     */
+    private ProfileActivationContext prewarmContext(final File pomFile) {
+        return new DefaultProfileActivationContext()
+            .setProjectDirectory(pomFile.getParentFile())
+            .setSystemProperties(this.projectBuildingRequest.getSystemProperties())
+            .setUserProperties(this.projectBuildingRequest.getUserProperties());
     }
 }
@@ -0,0 +1,306 @@
+package top.infra.maven.extension.mavenbuild.model;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.model.profile.ProfileActivationContext;
+
+import top.infra.maven.extension.mavenbuild.utils.LayeredPropertyView;
+import top.infra.maven.extension.mavenbuild.utils.SupportFunction;
+
+/**
+ * Fast path for activators that only need coordinates and a few properties of a project.
+ * <p/>
+ * Reads raw pom.xml (by MavenXpp3Reader) and its local parents (by relativePath), inherits coordinates and interpolates only
+ * the properties asked for. No repository access, no effective model build.
+ * Returns empty (caller falls back to {@link ActivatorModelResolver}) when that is not enough, e.g. parent not found locally
+ * or an expression can not be resolved.
+ */
+public class RawModelResolver {
+
+    private static final int MAX_DEPTH = 32;
+
+    private static final Pattern PATTERN_EXPRESSION = Pattern.compile("\\$\\{([^}]+)}");
+
+    private final org.codehaus.plexus.logging.Logger logger;
+
+    /**
+     * Raw model by pom.xml file, empty if unreadable.
+     */
+    private final Map<String, Optional<Model>> rawModels;
+
+    public RawModelResolver(final org.codehaus.plexus.logging.Logger logger) {
+        this.logger = logger;
+        this.rawModels = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Lightweight model: coordinates, packaging and interpolated values of given properties.
+     *
+     * @param profile       profile
+     * @param context       context
+     * @param propertyNames properties needed
+     * @return model, empty if can not be resolved by raw models
+     */
+    public Optional<Model> resolveModel(
+        final Profile profile,
+        final ProfileActivationContext context,
+        final Collection<String> propertyNames
+    ) {
+        return "source".equals(profile.getSource()) ? Optional.empty() : this.resolveModel(context, propertyNames);
+    }
+
+    /**
+     * Lightweight model of project in context.
+     *
+     * @param context       context
+     * @param propertyNames properties needed
+     * @return model, empty if can not be resolved by raw models
+     */
+    public Optional<Model> resolveModel(final ProfileActivationContext context, final Collection<String> propertyNames) {
+        if (context.getProjectDirectory() == null) {
+            return Optional.empty();
+        }
+
+        final File pomFile = new File(context.getProjectDirectory(), "pom.xml").getAbsoluteFile();
+        final Optional<List<Model>> lineage = this.lineage(pomFile);
+        if (!lineage.isPresent()) {
+            return Optional.empty();
+        }
+
+        final List<Model> models = lineage.get();
+        final Model raw = models.get(0);
+
+        // profiles of lineage may be activated and override properties, not known without effective model
+        final Set<String> profileProperties = new HashSet<>();
+        models.forEach(model -> model.getProfiles()
+            .forEach(profile -> profileProperties.addAll(profile.getProperties().stringPropertyNames())));
+
+        // child overrides parent, expressions: user props override model props, override system props
+        final List<Map<?, ?>> layers = new ArrayList<>(models.size() + 2);
+        layers.add(context.getUserProperties());
+        models.forEach(model -> layers.add(model.getProperties()));
+        layers.add(context.getSystemProperties());
+        final LayeredPropertyView modelProperties = LayeredPropertyView.of(layers.subList(1, layers.size() - 1));
+        final LayeredPropertyView properties = LayeredPropertyView.of(layers);
+
+        final Model result = new Model();
+        result.setPomFile(pomFile);
+        result.setParent(raw.getParent() != null ? raw.getParent().clone() : null);
+        result.setArtifactId(raw.getArtifactId());
+        result.setPackaging(raw.getPackaging());
+        result.setGroupId(raw.getGroupId() != null ? raw.getGroupId() : raw.getParent() != null ? raw.getParent().getGroupId() : null);
+        result.setVersion(raw.getVersion() != null ? raw.getVersion() : raw.getParent() != null ? raw.getParent().getVersion() : null);
+
+        final Optional<String> groupId = interpolate(result.getGroupId(), result, properties, profileProperties, context);
+        final Optional<String> version = interpolate(result.getVersion(), result, properties, profileProperties, context);
+        if (!groupId.isPresent() || !version.isPresent()) {
+            return this.fallback(pomFile, "coordinates");
+        }
+        result.setGroupId(groupId.get());
+        result.setVersion(version.get());
+
+        for (final String name : propertyNames) {
+            if (profileProperties.contains(name)) {
+                return this.fallback(pomFile, "profile property " + name);
+            }
+            final String value = modelProperties.getProperty(name);
+            if (value != null) {
+                final Optional<String> interpolated = interpolate(value, result, properties, profileProperties, context);
+                if (!interpolated.isPresent()) {
+                    return this.fallback(pomFile, name);
+                }
+                result.addProperty(name, interpolated.get());
+            }
+        }
+
+        return Optional.of(result);
+    }
+
+    /**
+     * Discover pom.xml files of a reactor by &lt;modules&gt; (recursively, profiles not included).
+     *
+     * @param rootPomFile pom.xml of execution root
+     * @return pom.xml files, root first
+     */
+    public List<File> modules(final File rootPomFile) {
+        final Set<File> result = new LinkedHashSet<>();
+        final Deque<File> queue = new ArrayDeque<>();
+        queue.add(rootPomFile.getAbsoluteFile());
+        while (!queue.isEmpty()) {
+            final File pomFile = queue.poll();
+            final Optional<Model> model = this.rawModel(pomFile);
+            if (model.isPresent() && result.add(pomFile)) {
+                for (final String module : model.get().getModules()) {
+                    final File moduleFile = new File(pomFile.getParentFile(), module.trim());
+                    queue.add((moduleFile.isDirectory() ? new File(moduleFile, "pom.xml") : moduleFile).toPath().normalize().toFile());
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Raw models of a reactor (see {@link #modules(File)}), each pom.xml is read once and shared with other lookups.
+     *
+     * @param rootPomFile pom.xml of execution root
+     * @return pom.xml files and their raw models (not interpolated, no inheritance), root first
+     */
+    public List<Entry<File, Model>> moduleModels(final File rootPomFile) {
+        return this.modules(rootPomFile).stream()
+            .map(pomFile -> this.rawModel(pomFile).map(model -> SupportFunction.newTuple(pomFile, model)))
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList());
+    }
+
+    private <T> Optional<T> fallback(final File pomFile, final String reason) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("RawModelResolver can not resolve [%s] of [%s], need effective model.", reason, pomFile));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Raw models of pom.xml and its local parents.
+     *
+     * @param pomFile pom.xml
+     * @return models (child first), empty if any parent is not found locally
+     */
+    private Optional<List<Model>> lineage(final File pomFile) {
+        final List<Model> result = new ArrayList<>();
+        File current = pomFile;
+        for (int depth = 0; depth < MAX_DEPTH; depth++) {
+            final Optional<Model> model = this.rawModel(current);
+            if (!model.isPresent()) {
+                return depth == 0 ? Optional.empty() : this.fallback(pomFile, "parent " + current);
+            }
+            result.add(model.get());
+
+            final Parent parent = model.get().getParent();
+            if (parent == null) {
+                return Optional.of(result);
+            }
+
+            final String relativePath = parent.getRelativePath();
+            if (relativePath == null || relativePath.trim().isEmpty()) {
+                return this.fallback(pomFile, "parent " + parent.getId());
+            }
+            final File parentFile = new File(current.getParentFile(), relativePath.trim());
+            current = (parentFile.isDirectory() ? new File(parentFile, "pom.xml") : parentFile).getAbsoluteFile();
+
+            final Optional<Model> parentModel = this.rawModel(current);
+            if (!parentModel.isPresent() || !matches(parent, parentModel.get())) {
+                // e.g. parent from repository
+                return this.fallback(pomFile, "parent " + parent.getId());
+            }
+        }
+        return this.fallback(pomFile, "parent depth");
+    }
+
+    private Optional<Model> rawModel(final File pomFile) {
+        return this.rawModels.computeIfAbsent(pomFile.getPath(), key -> {
+            if (!pomFile.isFile()) {
+                return Optional.empty();
+            }
+            try (final InputStream inputStream = Files.newInputStream(pomFile.toPath())) {
+                return Optional.of(new MavenXpp3Reader().read(inputStream, false));
+            } catch (final Exception ex) {
+                logger.warn(String.format("Failed to read raw model from pomFile [%s] (by MavenXpp3Reader). %s", pomFile, ex.getMessage()));
+                return Optional.empty();
+            }
+        });
+    }
+
+    private static boolean matches(final Parent parent, final Model model) {
+        final String groupId = model.getGroupId() != null ? model.getGroupId()
+            : model.getParent() != null ? model.getParent().getGroupId() : null;
+        final String version = model.getVersion() != null ? model.getVersion()
+            : model.getParent() != null ? model.getParent().getVersion() : null;
+        return parent.getArtifactId() != null && parent.getArtifactId().equals(model.getArtifactId())
+            && parent.getGroupId() != null && parent.getGroupId().equals(groupId)
+            && parent.getVersion() != null && parent.getVersion().equals(version);
+    }
+
+    /**
+     * Interpolate expressions like Maven does: user properties, project coordinates, model properties, system properties.
+     * Properties (user, model and system) are one view, see {@link LayeredPropertyView}.
+     *
+     * @param unresolvable properties that may be overridden by profiles, resolvable only by user properties
+     * @return value, empty if value is null or any expression can not be resolved
+     */
+    static Optional<String> interpolate(
+        final String value,
+        final Model model,
+        final LayeredPropertyView properties,
+        final Set<String> unresolvable,
+        final ProfileActivationContext context
+    ) {
+        if (value == null) {
+            return Optional.empty();
+        }
+
+        String result = value;
+        for (int depth = 0; depth < MAX_DEPTH && result.contains("${"); depth++) {
+            final Matcher matcher = PATTERN_EXPRESSION.matcher(result);
+            final StringBuffer sb = new StringBuffer();
+            while (matcher.find()) {
+                final String expression = matcher.group(1);
+                final String resolved = expressionValue(expression, model, properties, unresolvable, context);
+                if (resolved == null) {
+                    return Optional.empty();
+                }
+                matcher.appendReplacement(sb, Matcher.quoteReplacement(resolved));
+            }
+            matcher.appendTail(sb);
+            result = sb.toString();
+        }
+        return result.contains("${") ? Optional.empty() : Optional.of(result);
+    }
+
+    private static String expressionValue(
+        final String expression,
+        final Model model,
+        final LayeredPropertyView properties,
+        final Set<String> unresolvable,
+        final ProfileActivationContext context
+    ) {
+        final String result;
+        if (context.getUserProperties().containsKey(expression)) {
+            result = context.getUserProperties().get(expression);
+        } else if (unresolvable.contains(expression)) {
+            result = null;
+        } else if ("project.groupId".equals(expression) || "pom.groupId".equals(expression)) {
+            result = model.getGroupId();
+        } else if ("project.artifactId".equals(expression) || "pom.artifactId".equals(expression)) {
+            result = model.getArtifactId();
+        } else if ("project.version".equals(expression) || "pom.version".equals(expression)) {
+            result = model.getVersion();
+        } else if ("project.basedir".equals(expression) || "basedir".equals(expression)) {
+            result = context.getProjectDirectory().getAbsolutePath();
+        } else {
+            result = properties.getProperty(expression);
+        }
+        return result;
+    }
+}
@@ -1,25 +1,257 @@
 package top.infra.maven.extension.mavenbuild.model;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.maven.model.Build;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
 import org.apache.maven.model.building.ModelCache;
 
 /**
- * A simple model cache used to accelerate model building during a reactor build.
+ * A model cache used to accelerate model building during a reactor build.
+ * <p/>
+ * Bounded by total weight (approximate size of models), least recently used entries are moved into a soft
+ * reference tier which is given up by the GC under memory pressure. Counts hits, misses and evictions.
  *
  * @author Benjamin Bentmann
  */
 class ReactorModelCache implements ModelCache {
 
-    private final Map<CacheKey, Object> models = new ConcurrentHashMap<>(256);
+    /**
+     * About 2,000 raw models of average size.
+     */
+    static final long DEFAULT_MAX_WEIGHT = 128L * 1024L;
+
+    private static final long WEIGHT_UNKNOWN = 64L;
+
+    /**
+     * Accessible getModel method of (ModelData) class, looked up once per class.
+     */
+    private static final ClassValue<Optional<Method>> GET_MODEL = new ClassValue<Optional<Method>>() {
+        @Override
+        protected Optional<Method> computeValue(final Class<?> type) {
+            try {
+                final Method getModel = type.getMethod("getModel");
+                getModel.setAccessible(true);
+                return Optional.of(getModel);
+            } catch (final ReflectiveOperationException | RuntimeException ex) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    private final long maxWeight;
+
+    /**
+     * Strong tier in access order, guarded by itself.
+     */
+    private final LinkedHashMap<CacheKey, Entry> models;
+
+    private final Map<CacheKey, SoftEntry> softModels;
+
+    private final ReferenceQueue<Object> collected;
+
+    private long weight;
+
+    private final AtomicLong hits;
+    private final AtomicLong softHits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+    private final AtomicLong collections;
+
+    ReactorModelCache() {
+        this(DEFAULT_MAX_WEIGHT);
+    }
+
+    ReactorModelCache(final long maxWeight) {
+        this.maxWeight = maxWeight;
+        this.models = new LinkedHashMap<>(256, 0.75f, true);
+        this.softModels = new ConcurrentHashMap<>(256);
+        this.collected = new ReferenceQueue<>();
+        this.weight = 0L;
+
+        this.hits = new AtomicLong(0L);
+        this.softHits = new AtomicLong(0L);
+        this.misses = new AtomicLong(0L);
+        this.evictions = new AtomicLong(0L);
+        this.collections = new AtomicLong(0L);
+    }
 
     public void put(String groupId, String artifactId, String version, String tag, Object data) {
-        models.put(new CacheKey(groupId, artifactId, version, tag), data);
+        this.putEntry(new CacheKey(groupId, artifactId, version, tag), data, weigh(data));
     }
 
     public Object get(String groupId, String artifactId, String version, String tag) {
-        return models.get(new CacheKey(groupId, artifactId, version, tag));
+        this.expungeCollected();
+
+        final CacheKey key = new CacheKey(groupId, artifactId, version, tag);
+        synchronized (this.models) {
+            final Entry entry = this.models.get(key);
+            if (entry != null) {
+                this.hits.incrementAndGet();
+                return entry.data;
+            }
+        }
+
+        final SoftEntry softEntry = this.softModels.remove(key);
+        final Object data = softEntry != null ? softEntry.get() : null;
+        if (data != null) {
+            this.softHits.incrementAndGet();
+            this.putEntry(key, data, softEntry.weight);
+        } else {
+            this.misses.incrementAndGet();
+        }
+        return data;
+    }
+
+    private void putEntry(final CacheKey key, final Object data, final long entryWeight) {
+        this.softModels.remove(key);
+        synchronized (this.models) {
+            final Entry previous = this.models.put(key, new Entry(data, entryWeight));
+            if (previous != null) {
+                this.weight -= previous.weight;
+            }
+            this.weight += entryWeight;
+
+            final Iterator<Map.Entry<CacheKey, Entry>> iterator = this.models.entrySet().iterator();
+            while (this.weight > this.maxWeight && iterator.hasNext()) {
+                final Map.Entry<CacheKey, Entry> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    // keep the entry just put
+                    continue;
+                }
+                iterator.remove();
+                this.weight -= eldest.getValue().weight;
+                this.evictions.incrementAndGet();
+                this.softModels.put(eldest.getKey(),
+                    new SoftEntry(eldest.getKey(), eldest.getValue().data, eldest.getValue().weight, this.collected));
+            }
+        }
+    }
+
+    private void expungeCollected() {
+        Reference<?> reference;
+        while ((reference = this.collected.poll()) != null) {
+            final SoftEntry softEntry = (SoftEntry) reference;
+            if (this.softModels.remove(softEntry.key, softEntry)) {
+                this.collections.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Cache statistics for build log.
+     *
+     * @return e.g. "entries=10 (soft 2), weight=1024/131072, hits=90, soft hits=1, misses=10, evictions=2, collected=0"
+     */
+    public String stats() {
+        this.expungeCollected();
+
+        final int entries;
+        final long currentWeight;
+        synchronized (this.models) {
+            entries = this.models.size();
+            currentWeight = this.weight;
+        }
+        return String.format("entries=%s (soft %s), weight=%s/%s, hits=%s, soft hits=%s, misses=%s, evictions=%s, collected=%s",
+            entries, this.softModels.size(), currentWeight, this.maxWeight,
+            this.hits.get(), this.softHits.get(), this.misses.get(), this.evictions.get(), this.collections.get());
+    }
+
+    long getHits() {
+        return this.hits.get() + this.softHits.get();
+    }
+
+    long getMisses() {
+        return this.misses.get();
+    }
+
+    long getEvictions() {
+        return this.evictions.get();
+    }
+
+    /**
+     * Approximate size of cached data (number of model elements).
+     * Raw models are cached wrapped in Maven's package private ModelData.
+     *
+     * @param data Model, DependencyManagement or ModelData
+     * @return weight
+     */
+    static long weigh(final Object data) {
+        final long result;
+        if (data instanceof Model) {
+            result = weigh((Model) data);
+        } else if (data instanceof DependencyManagement) {
+            result = 1L + ((DependencyManagement) data).getDependencies().size();
+        } else if (data != null) {
+            Model model;
+            try {
+                final Optional<Method> getModel = GET_MODEL.get(data.getClass());
+                final Object found = getModel.isPresent() ? getModel.get().invoke(data) : null;
+                model = found instanceof Model ? (Model) found : null;
+            } catch (final ReflectiveOperationException | RuntimeException ex) {
+                model = null;
+            }
+            result = model != null ? weigh(model) : WEIGHT_UNKNOWN;
+        } else {
+            result = 1L;
+        }
+        return result;
+    }
+
+    private static long weigh(final Model model) {
+        long result = 1L;
+        result += model.getDependencies().size();
+        result += model.getModules().size();
+        result += model.getProfiles().size();
+        result += model.getProperties().size();
+        result += model.getRepositories().size();
+        result += model.getPluginRepositories().size();
+        if (model.getDependencyManagement() != null) {
+            result += model.getDependencyManagement().getDependencies().size();
+        }
+        final Build build = model.getBuild();
+        if (build != null) {
+            result += build.getPlugins().size();
+            if (build.getPluginManagement() != null) {
+                result += build.getPluginManagement().getPlugins().size();
+            }
+        }
+        return result;
+    }
+
+    private static final class Entry {
+
+        private final Object data;
+
+        private final long weight;
+
+        Entry(final Object data, final long weight) {
+            this.data = data;
+            this.weight = weight;
+        }
+    }
+
+    private static final class SoftEntry extends SoftReference<Object> {
+
+        private final CacheKey key;
+
+        private final long weight;
+
+        SoftEntry(final CacheKey key, final Object data, final long weight, final ReferenceQueue<Object> queue) {
+            super(data, queue);
+            this.key = key;
+            this.weight = weight;
+        }
     }
 
     private static final class CacheKey {
@@ -3,14 +3,29 @@ package top.infra.maven.extension.mavenbuild.model;
 import static java.lang.Boolean.FALSE;
 import static java.util.Collections.emptyMap;
 import static java.util.stream.Collectors.toList;
-import static top.infra.maven.extension.mavenbuild.utils.FileUtils.pathname;
+import static top.infra.maven.extension.mavenbuild.utils.SupportFunction.newTuple;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
 
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.model.Dependency;
@@ -25,6 +40,7 @@ import org.apache.maven.model.resolution.UnresolvableModelException;
 
 import top.infra.maven.extension.mavenbuild.utils.DownloadUtils;
 import top.infra.maven.extension.mavenbuild.utils.DownloadUtils.DownloadException;
+import top.infra.maven.extension.mavenbuild.utils.FileUtils;
 import top.infra.maven.logging.Logger;
 import top.infra.maven.logging.LoggerPlexusImpl;
 
@@ -43,8 +59,22 @@ public class RepositoryModelResolver implements ModelResolver {
     private static final String MAVEN_CENTRAL_URL = "https://repo1.maven.org/maven2";
     private static final String MAVEN_CENTRAL_URL_MIRROR_1 = "http://repo.maven.apache.org/maven2";
 
+    private static final long LATENCY_FAILED = Long.MAX_VALUE;
+    private static final long LATENCY_UNKNOWN = Long.MAX_VALUE - 1;
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "repository-model-resolver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final Logger logger;
 
+    /**
+     * Latency (nanos) of last download by repository url, shared by copies, fastest repository is tried first.
+     */
+    private final Map<String, Long> latencies;
+
     private File localRepository;
 
     private Collection<Repository> repositories = new LinkedHashSet<>();
@@ -54,6 +84,7 @@ public class RepositoryModelResolver implements ModelResolver {
         final org.codehaus.plexus.logging.Logger logger
     ) {
         this.logger = new LoggerPlexusImpl(logger);
+        this.latencies = new ConcurrentHashMap<>();
 
         final Repository central = new Repository();
         central.setId("central");
@@ -68,10 +99,12 @@ public class RepositoryModelResolver implements ModelResolver {
 
     private RepositoryModelResolver(
         final Logger logger,
+        final Map<String, Long> latencies,
         final File localRepository,
         final Collection<Repository> repositories
     ) {
         this.logger = logger;
+        this.latencies = latencies;
         this.localRepository = localRepository;
         this.repositories = new LinkedHashSet<>();
         this.repositories.addAll(repositories.stream().map(Repository::clone).collect(toList()));
@@ -137,7 +170,7 @@ public class RepositoryModelResolver implements ModelResolver {
 
     @Override
     public ModelResolver newCopy() {
-        return new RepositoryModelResolver(logger, this.localRepository, this.repositories);
+        return new RepositoryModelResolver(logger, this.latencies, this.localRepository, this.repositories);
     }
 
     @Override
@@ -180,28 +213,122 @@ public class RepositoryModelResolver implements ModelResolver {
         return new File(new File(new File(pom, artifactId), version), artifactId + "-" + version + ".pom");
     }
 
+    /**
+     * Enabled repositories, fastest (by latency of last download) first, failed ones last.
+     *
+     * @param snapshot snapshot or release
+     * @return repositories in order they are tried
+     */
+    List<Repository> candidates(final boolean snapshot) {
+        return this.repositories.stream()
+            .filter(repo -> isEnabled(snapshot ? repo.getSnapshots() : repo.getReleases()))
+            .sorted(Comparator.comparingLong(repo -> this.latencies.getOrDefault(repo.getUrl(), LATENCY_UNKNOWN)))
+            .collect(toList());
+    }
+
+    /**
+     * Race all enabled repositories, keep first successful download, cancel the rest.
+     *
+     * @param localRepoFile pom file in local repository
+     */
     private void download(final File localRepoFile) {
-        for (final Repository repo : this.repositories) {
-            final String repoUrl = repo.getUrl().endsWith("/")
-                ? repo.getUrl().substring(0, repo.getUrl().length() - 1)
-                : repo.getUrl();
-
-            final String filePath = localRepoFile.getAbsolutePath().substring(this.localRepository.getAbsolutePath().length());
-            final String sourceUrl = repoUrl + filePath;
-
-            final Entry<Optional<Integer>, Optional<Exception>> result = DownloadUtils.download(
-                logger, sourceUrl, pathname(localRepoFile), emptyMap(), 3);
-            final Optional<Integer> status = result.getKey();
-            final Optional<Exception> error = result.getValue();
-            final boolean is2xxStatus = status.map(DownloadUtils::is2xxStatus).orElse(FALSE);
-            if (error.isPresent()) {
-                throw new DownloadException(error.get());
-            } else if (!is2xxStatus) {
-                throw new DownloadException(String.format("url [%s], status [%s]", sourceUrl, status.orElse(null)));
+        final String filePath = localRepoFile.getAbsolutePath().substring(this.localRepository.getAbsolutePath().length());
+        final boolean snapshot = localRepoFile.getParentFile().getName().endsWith("-SNAPSHOT");
+        final List<Repository> candidates = this.candidates(snapshot);
+        if (candidates.isEmpty()) {
+            throw new DownloadException(String.format("No repository enabled for [%s]", filePath));
+        }
+
+        final ExecutorCompletionService<Entry<String, Path>> completionService = new ExecutorCompletionService<>(EXECUTOR);
+        // racers read their own future, all are added before any is cancelled
+        final List<Future<Entry<String, Path>>> futures = new CopyOnWriteArrayList<>();
+        // each racer writes its own (unique, other threads may resolve same pom) file, winner is renamed to localRepoFile
+        final List<Path> parts = new ArrayList<>(candidates.size());
+        Exception lastError = null;
+        try {
+            final Path directory = Files.createDirectories(localRepoFile.getAbsoluteFile().getParentFile().toPath());
+            for (int idx = 0; idx < candidates.size(); idx++) {
+                final int racer = idx;
+                final Repository repo = candidates.get(idx);
+                final String repoUrl = repo.getUrl().endsWith("/")
+                    ? repo.getUrl().substring(0, repo.getUrl().length() - 1)
+                    : repo.getUrl();
+                final String sourceUrl = repoUrl + filePath;
+                final Path saveToFile = Files.createTempFile(directory, localRepoFile.getName() + ".", ".part");
+                parts.add(saveToFile);
+                futures.add(completionService.submit(() -> this.download(
+                    repo.getUrl(), sourceUrl, saveToFile, () -> racer < futures.size() && futures.get(racer).isCancelled())));
+            }
+
+            for (int idx = 0; idx < futures.size(); idx++) {
+                try {
+                    final Entry<String, Path> winner = completionService.take().get();
+                    FileUtils.moveAtomically(winner.getValue(), localRepoFile.toPath());
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(String.format("Download [%s] won by [%s]", filePath, winner.getKey()));
+                    }
+                    return;
+                } catch (final ExecutionException ex) {
+                    lastError = ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+                } catch (final IOException ex) {
+                    lastError = ex;
+                }
             }
+        } catch (final IOException ex) {
+            lastError = ex;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            lastError = ex;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            // losers still running (e.g. blocked in a read, not interrupt-responsive) clean up by themselves
+            parts.forEach(part -> part.toFile().delete());
+        }
+
+        throw lastError instanceof DownloadException
+            ? (DownloadException) lastError
+            : new DownloadException(String.format("Error download [%s]", filePath), lastError);
+    }
+
+    /**
+     * Download by one racer.
+     * <p/>
+     * Latency of repository is recorded on success, failure is recorded only on I/O errors and 5xx status
+     * (a 404 means the repository does not host this pom, it is not slow or broken). Cancelled racers record nothing.
+     */
+    private Entry<String, Path> download(
+        final String repoUrl,
+        final String sourceUrl,
+        final Path saveToFile,
+        final BooleanSupplier cancelled
+    ) {
+        final long start = System.nanoTime();
+        final Entry<Optional<Integer>, Optional<Exception>> result = DownloadUtils.download(
+            logger, sourceUrl, saveToFile.toString(), emptyMap(), 3);
+        if (cancelled.getAsBoolean() || Thread.currentThread().isInterrupted()) {
+            // lost the race, part file may be written after the winner's cleanup
+            saveToFile.toFile().delete();
+            throw new CancellationException(String.format("url [%s] lost the race", sourceUrl));
+        }
 
-            // this.httpDownload(sourceUrl, pathname(localRepoFile));
+        final Optional<Integer> status = result.getKey();
+        final Optional<Exception> error = result.getValue();
+        if (error.isPresent() || status.map(DownloadUtils::is5xxStatus).orElse(FALSE)) {
+            // try it last next time
+            this.latencies.put(repoUrl, LATENCY_FAILED);
+        }
+        if (error.isPresent()) {
+            throw new DownloadException(error.get());
+        } else if (!status.map(DownloadUtils::is2xxStatus).orElse(FALSE)) {
+            throw new DownloadException(String.format("url [%s], status [%s]", sourceUrl, status.orElse(null)));
         }
+
+        this.latencies.put(repoUrl, System.nanoTime() - start);
+        return newTuple(repoUrl, saveToFile);
+    }
+
+    private static boolean isEnabled(final RepositoryPolicy policy) {
+        return policy == null || policy.isEnabled();
     }
 
     // @Deprecated
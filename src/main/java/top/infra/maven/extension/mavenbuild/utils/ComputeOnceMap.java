@@ -0,0 +1,104 @@
+package top.infra.maven.extension.mavenbuild.utils;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent memento, value of a key is computed exactly once, other threads asking for the key wait for it.
+ * <p/>
+ * Recursive calls (same key, on the computing thread) do not wait (that would deadlock) but get an alternative value.
+ * Failed computations are not remembered.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class ComputeOnceMap<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> values;
+
+    private final ConcurrentMap<K, Thread> owners;
+
+    public ComputeOnceMap() {
+        this.values = new ConcurrentHashMap<>();
+        this.owners = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get value of key, compute it if absent.
+     *
+     * @param key         key
+     * @param compute     computes value, called at most once per key (unless it fails)
+     * @param onRecursion value for recursive calls made by compute on the computing thread, not remembered
+     * @return value
+     */
+    public V get(final K key, final Supplier<V> compute, final Supplier<V> onRecursion) {
+        final CompletableFuture<V> found = this.values.get(key);
+        if (found != null) {
+            return this.isComputing(key) ? onRecursion.get() : join(found);
+        }
+
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        final CompletableFuture<V> existing = this.values.putIfAbsent(key, future);
+        if (existing != null) {
+            return this.isComputing(key) ? onRecursion.get() : join(existing);
+        }
+
+        this.owners.put(key, Thread.currentThread());
+        try {
+            final V value = compute.get();
+            future.complete(value);
+            return value;
+        } catch (final RuntimeException | Error ex) {
+            this.values.remove(key, future);
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            this.owners.remove(key);
+        }
+    }
+
+    /**
+     * Computed value of key.
+     *
+     * @param key key
+     * @return value, empty if absent, still computing or failed
+     */
+    public Optional<V> find(final K key) {
+        final CompletableFuture<V> found = this.values.get(key);
+        return found != null && found.isDone() && !found.isCompletedExceptionally()
+            ? Optional.ofNullable(found.join())
+            : Optional.empty();
+    }
+
+    /**
+     * Whether value of key is being computed by current thread.
+     *
+     * @param key key
+     * @return computing
+     */
+    public boolean isComputing(final K key) {
+        return this.owners.get(key) == Thread.currentThread();
+    }
+
+    public int size() {
+        return this.values.size();
+    }
+
+    private static <V> V join(final CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -6,12 +6,17 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -36,6 +41,38 @@ public abstract class DownloadUtils {
         }
     }
 
+    public static final String HEADER_ETAG = "ETag";
+    public static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    public static final String HEADER_LAST_MODIFIED = "Last-Modified";
+
+    private static final int HTTP_PERMANENT_REDIRECT = 308;
+    private static final int HTTP_TEMPORARY_REDIRECT = 307;
+    private static final int MAX_REDIRECTS = 5;
+
+    /**
+     * Credentials, not sent to another host (or scheme) on redirect.
+     */
+    private static final List<String> HEADERS_AUTH = Arrays.asList(
+        "Authorization", "Cookie", "JOB-TOKEN", "PRIVATE-TOKEN", "Proxy-Authorization");
+
+    private static volatile HttpTransport transport = new HttpUrlConnectionTransport(
+        (int) TimeUnit.SECONDS.toMillis(10L), (int) TimeUnit.SECONDS.toMillis(20L));
+
+    @FunctionalInterface
+    public interface BodyWriter {
+
+        /**
+         * Write (transformed) response body into target.
+         *
+         * @param body   response body
+         * @param target temporary file
+         * @return false to discard target (keep saveToFile as is)
+         * @throws IOException on error
+         */
+        boolean write(InputStream body, OutputStream target) throws IOException;
+    }
+
     private DownloadUtils() {
     }
 
@@ -45,6 +82,58 @@ public abstract class DownloadUtils {
         final String saveToFile,
         final Map<String, String> headers,
         final int maxTry
+    ) {
+        return download(logger, fromUrl, saveToFile, headers, maxTry, null);
+    }
+
+    /**
+     * Download fromUrl into saveToFile.
+     * <p/>
+     * Send conditional headers (If-None-Match, If-Modified-Since) in headers to get a 304 (and no body) if not modified,
+     * saveToFile is not touched on 304.
+     *
+     * @param logger          logger
+     * @param fromUrl         url
+     * @param saveToFile      target file
+     * @param headers         request headers, nullable
+     * @param maxTry          max try (redirects do not count)
+     * @param responseHeaders put response headers (first value of each) into, nullable
+     * @return tuple(status, exception)
+     */
+    public static Entry<Optional<Integer>, Optional<Exception>> download(
+        final Logger logger,
+        final String fromUrl,
+        final String saveToFile,
+        final Map<String, String> headers,
+        final int maxTry,
+        final Map<String, String> responseHeaders
+    ) {
+        return download(logger, fromUrl, saveToFile, headers, maxTry, responseHeaders, null);
+    }
+
+    /**
+     * Download fromUrl, write (transformed) body into saveToFile.
+     * <p/>
+     * Body is written into a temporary file in the same directory then renamed to saveToFile,
+     * readers never see a partially written file.
+     *
+     * @param logger          logger
+     * @param fromUrl         url
+     * @param saveToFile      target file
+     * @param headers         request headers, nullable
+     * @param maxTry          max try (redirects do not count)
+     * @param responseHeaders put headers (first value of each) of final response (not redirects or 5xx) into, nullable
+     * @param bodyWriter      write body into target, nullable (copy as is)
+     * @return tuple(status, exception)
+     */
+    public static Entry<Optional<Integer>, Optional<Exception>> download(
+        final Logger logger,
+        final String fromUrl,
+        final String saveToFile,
+        final Map<String, String> headers,
+        final int maxTry,
+        final Map<String, String> responseHeaders,
+        final BodyWriter bodyWriter
     ) {
         // download a file only when it exists
         // see: https://stackoverflow.com/questions/921262/how-to-download-and-save-a-file-from-internet-using-java
@@ -52,63 +141,46 @@ public abstract class DownloadUtils {
         Exception lastException = null;
         Integer lastStatus = null;
 
+        String url = fromUrl;
+        Map<String, String> requestHeaders = headers;
+        int redirects = 0;
         int count = 0;
-        while (count < maxTry) {
+        // no retry once interrupted (e.g. cancelled racer)
+        while (count < maxTry && !Thread.currentThread().isInterrupted()) {
             count++;
 
-            String newUrl = null;
-            InputStream inputStream = null;
-            try {
-                final URL source = new URL(fromUrl);
-                final HttpURLConnection urlConnection = (HttpURLConnection) source.openConnection();
-                urlConnection.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(10L));
-                urlConnection.setReadTimeout((int) TimeUnit.SECONDS.toMillis(20L));
-
-                if (logger.isDebugEnabled()) {
-                    logger.debug(String.format("HttpURLConnection header names: %s", headers != null ? headers.keySet() : null));
-                }
-                if (headers != null && headers.size() > 0) {
-                    headers.forEach(urlConnection::setRequestProperty);
-                }
-
-                inputStream = urlConnection.getInputStream();
-                final int status = urlConnection.getResponseCode();
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Download header names: %s", requestHeaders != null ? requestHeaders.keySet() : null));
+            }
+            try (final HttpTransport.Response response = transport.send("GET", url, requestHeaders)) {
+                final int status = response.getStatus();
 
                 lastException = null;
                 lastStatus = status;
 
-                final boolean redirect = lastStatus == HttpURLConnection.HTTP_MOVED_TEMP
-                    || lastStatus == HttpURLConnection.HTTP_MOVED_PERM
-                    || lastStatus == HttpURLConnection.HTTP_SEE_OTHER;
-
-                if (redirect) {
-                    newUrl = urlConnection.getHeaderField("Location");
-                    logger.info(String.format("Download redirect ('%s' to '%s'). %s", fromUrl, newUrl, status));
-                } else {
-                    newUrl = null;
-                    logger.info(String.format("Download result ('%s' to '%s'). %s", fromUrl, saveToFile, status));
+                final Optional<String> location = response.getHeader("Location");
+                if (isRedirect(status) && location.isPresent()) {
+                    if (redirects >= MAX_REDIRECTS) {
+                        return newTupleOptional(status, new DownloadException(String.format("Too many redirects ('%s').", fromUrl)));
+                    }
+                    final URL oldUrl = new URL(url);
+                    final URL newUrl = new URL(oldUrl, location.get());
+                    logger.info(String.format("Download redirect ('%s' to '%s'). %s", url, newUrl, status));
+                    if (!sameOrigin(oldUrl, newUrl)) {
+                        requestHeaders = withoutAuthHeaders(requestHeaders);
+                    }
+                    url = newUrl.toString();
+                    redirects++;
+                    count--;
+                    continue;
                 }
-            } catch (final java.io.FileNotFoundException ex) {
-                logger.warn(String.format("Download error ('%s' to '%s'). %s", fromUrl, saveToFile, "Not found"));
 
-                lastException = null;
-                lastStatus = 404;
-            } catch (final java.net.SocketTimeoutException ex) {
-                logger.warn(String.format("Download timeout ('%s' to '%s'). %s", fromUrl, saveToFile, ex.getMessage()));
-
-                lastException = ex;
-                lastStatus = null;
-            } catch (final Exception ex) {
-                logger.warn(String.format("Download error ('%s' to '%s'). %s", fromUrl, saveToFile, ex.getMessage()), ex);
-
-                lastException = ex;
-                lastStatus = null;
-            }
+                if (responseHeaders != null && !is5xxStatus(status)) {
+                    responseHeaders.putAll(response.getHeaders());
+                }
 
-            if (inputStream != null) {
-                if (newUrl != null) {
-                    return download(logger, newUrl, saveToFile, headers, maxTry);
-                } else if (is2xxStatus(lastStatus)) {
+                if (is2xxStatus(status)) {
+                    logger.info(String.format("Download result ('%s' to '%s'). %s", url, saveToFile, status));
                     final File saveToDir = Paths.get(saveToFile).toFile().getParentFile();
                     try {
                         if (!saveToDir.exists()) {
@@ -118,29 +190,141 @@ public abstract class DownloadUtils {
                         return newTupleOptional(lastStatus, ex);
                     }
 
-                    try (final ReadableByteChannel rbc = Channels.newChannel(inputStream)) {
-                        try (final FileOutputStream fos = new FileOutputStream(saveToFile)) {
-                            fos.getChannel().transferFrom(rbc, 0, Long.MAX_VALUE);
-                        }
+                    try {
+                        writeAtomically(response.getBody(), Paths.get(saveToFile), bodyWriter);
                         return newTupleOptional(lastStatus, null);
                     } catch (final IOException ex) {
                         return newTupleOptional(lastStatus, ex);
                     }
-                } else if (lastStatus != null && !is5xxStatus(lastStatus)) {
+                } else if (is404Status(status)) {
+                    logger.warn(String.format("Download error ('%s' to '%s'). %s", url, saveToFile, "Not found"));
+                    return newTupleOptional(lastStatus, null);
+                } else if (!is5xxStatus(status)) {
+                    logger.info(String.format("Download result ('%s' to '%s'). %s", url, saveToFile, status));
                     return newTupleOptional(lastStatus, null);
+                } else {
+                    logger.warn(String.format("Download error ('%s' to '%s'). %s", url, saveToFile, status));
                 }
-            } else if (lastStatus != null && lastStatus == 404) {
-                return newTupleOptional(lastStatus, null);
+            } catch (final java.net.SocketTimeoutException ex) {
+                logger.warn(String.format("Download timeout ('%s' to '%s'). %s", url, saveToFile, ex.getMessage()));
+
+                lastException = ex;
+                lastStatus = null;
+            } catch (final Exception ex) {
+                logger.warn(String.format("Download error ('%s' to '%s'). %s", url, saveToFile, ex.getMessage()), ex);
+
+                lastException = ex;
+                lastStatus = null;
             }
         }
 
         return newTupleOptional(lastStatus, lastException);
     }
 
+    private static boolean sameOrigin(final URL url1, final URL url2) {
+        return url1.getProtocol().equalsIgnoreCase(url2.getProtocol())
+            && url1.getHost().equalsIgnoreCase(url2.getHost())
+            && url1.getPort() == url2.getPort();
+    }
+
+    private static Map<String, String> withoutAuthHeaders(final Map<String, String> headers) {
+        if (headers == null) {
+            return null;
+        }
+        final Map<String, String> result = new LinkedHashMap<>();
+        headers.forEach((name, value) -> {
+            if (HEADERS_AUTH.stream().noneMatch(name::equalsIgnoreCase)) {
+                result.put(name, value);
+            }
+        });
+        return result;
+    }
+
+    private static void writeAtomically(final InputStream body, final Path target, final BodyWriter bodyWriter) throws IOException {
+        final Path tmp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            final boolean keep;
+            try (final FileOutputStream fos = new FileOutputStream(tmp.toFile())) {
+                if (bodyWriter != null) {
+                    keep = bodyWriter.write(body, fos);
+                } else {
+                    try (final ReadableByteChannel rbc = Channels.newChannel(body)) {
+                        fos.getChannel().transferFrom(rbc, 0, Long.MAX_VALUE);
+                    }
+                    keep = true;
+                }
+                fos.getFD().sync();
+            }
+            if (keep) {
+                FileUtils.moveAtomically(tmp, target);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Send a HEAD request, response headers only.
+     *
+     * @param logger          logger
+     * @param fromUrl         url
+     * @param headers         request headers, nullable
+     * @param responseHeaders put response headers (first value of each) into
+     * @return tuple(status, exception)
+     */
+    public static Entry<Optional<Integer>, Optional<Exception>> head(
+        final Logger logger,
+        final String fromUrl,
+        final Map<String, String> headers,
+        final Map<String, String> responseHeaders
+    ) {
+        try (final HttpTransport.Response response = transport.send("HEAD", fromUrl, headers)) {
+            final int status = response.getStatus();
+            responseHeaders.putAll(response.getHeaders());
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("HEAD result ('%s'). %s", fromUrl, status));
+            }
+            return newTupleOptional(status, null);
+        } catch (final Exception ex) {
+            logger.warn(String.format("HEAD error ('%s'). %s", fromUrl, ex.getMessage()));
+            return newTupleOptional(null, ex);
+        }
+    }
+
+    /**
+     * Transport shared by all downloads.
+     *
+     * @return transport
+     */
+    public static HttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Replace shared transport (e.g. a stub in tests).
+     *
+     * @param httpTransport transport
+     */
+    public static void setTransport(final HttpTransport httpTransport) {
+        transport = httpTransport;
+    }
+
+    private static boolean isRedirect(final int status) {
+        return status == HttpURLConnection.HTTP_MOVED_PERM
+            || status == HttpURLConnection.HTTP_MOVED_TEMP
+            || status == HttpURLConnection.HTTP_SEE_OTHER
+            || status == HTTP_TEMPORARY_REDIRECT
+            || status == HTTP_PERMANENT_REDIRECT;
+    }
+
     public static boolean is2xxStatus(final Integer status) {
         return status != null && status >= 200 && status < 300;
     }
 
+    public static boolean is304Status(final Integer status) {
+        return status != null && status == HttpURLConnection.HTTP_NOT_MODIFIED;
+    }
+
     public static boolean is404Status(final Integer status) {
         return status != null && status == 404;
     }
@@ -3,6 +3,7 @@ package top.infra.maven.extension.mavenbuild.utils;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -51,4 +52,43 @@ public class FileUtils {
             throw new RuntimeIOException(ex);
         }
     }
+
+    /**
+     * Write into a temporary file in the same directory then rename it to path,
+     * readers never see a partially written file.
+     *
+     * @param path  target file
+     * @param bytes content
+     * @return true
+     */
+    public static boolean writeFileAtomically(final Path path, final byte[] bytes) {
+        try {
+            final Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tmp, bytes, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+                moveAtomically(tmp, path);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            return true;
+        } catch (final IOException ex) {
+            throw new RuntimeIOException(ex);
+        }
+    }
+
+    /**
+     * Rename source to target, replace target if exists.
+     * Use atomic move if file system supports it.
+     *
+     * @param source source
+     * @param target target
+     * @throws IOException on error
+     */
+    public static void moveAtomically(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 }
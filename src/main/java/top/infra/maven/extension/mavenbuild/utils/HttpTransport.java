@@ -0,0 +1,48 @@
+package top.infra.maven.extension.mavenbuild.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sends http requests, one instance (and its connection pool) is shared by all downloads in a session.
+ */
+public interface HttpTransport {
+
+    /**
+     * Send a request, redirects are not followed.
+     *
+     * @param method  GET or HEAD
+     * @param url     url
+     * @param headers request headers, nullable
+     * @return response, must be closed to release connection
+     * @throws IOException on network error
+     */
+    Response send(String method, String url, Map<String, String> headers) throws IOException;
+
+    interface Response extends Closeable {
+
+        int getStatus();
+
+        /**
+         * Response headers (first value of each).
+         *
+         * @return headers, names are case insensitive
+         */
+        Map<String, String> getHeaders();
+
+        default Optional<String> getHeader(final String name) {
+            return Optional.ofNullable(this.getHeaders().get(name));
+        }
+
+        /**
+         * Response body.
+         *
+         * @return body, empty if none
+         * @throws IOException on network error
+         */
+        InputStream getBody() throws IOException;
+    }
+}
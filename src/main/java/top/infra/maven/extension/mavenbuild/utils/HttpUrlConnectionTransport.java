@@ -0,0 +1,122 @@
+package top.infra.maven.extension.mavenbuild.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * HttpURLConnection based transport.
+ * <p/>
+ * Connections are kept alive and reused by JDK's keep-alive cache (per host), as long as each response body is
+ * consumed and closed (not disconnected), so TLS handshake to a host happens once per session.
+ */
+public class HttpUrlConnectionTransport implements HttpTransport {
+
+    /**
+     * Drain at most this many bytes of an unread body on close to keep the connection reusable.
+     */
+    private static final int MAX_DRAIN = 64 * 1024;
+
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    /**
+     * Constructor.
+     *
+     * @param connectTimeout connect timeout in milliseconds
+     * @param readTimeout    read timeout in milliseconds
+     */
+    public HttpUrlConnectionTransport(final int connectTimeout, final int readTimeout) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public Response send(final String method, final String url, final Map<String, String> headers) throws IOException {
+        final HttpURLConnection urlConnection = (HttpURLConnection) new URL(url).openConnection();
+        urlConnection.setRequestMethod(method);
+        urlConnection.setInstanceFollowRedirects(false);
+        urlConnection.setConnectTimeout(this.connectTimeout);
+        urlConnection.setReadTimeout(this.readTimeout);
+        if (headers != null && headers.size() > 0) {
+            headers.forEach(urlConnection::setRequestProperty);
+        }
+
+        final int status = urlConnection.getResponseCode();
+
+        final Map<String, String> responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        urlConnection.getHeaderFields().forEach((name, values) -> {
+            // name of status line is null
+            if (name != null && values != null && !values.isEmpty()) {
+                responseHeaders.put(name, values.get(0));
+            }
+        });
+
+        return new UrlConnectionResponse(urlConnection, status, Collections.unmodifiableMap(responseHeaders));
+    }
+
+    private static class UrlConnectionResponse implements Response {
+
+        private final HttpURLConnection urlConnection;
+        private final int status;
+        private final Map<String, String> headers;
+
+        private InputStream body;
+        private boolean bodyClosed;
+
+        UrlConnectionResponse(final HttpURLConnection urlConnection, final int status, final Map<String, String> headers) {
+            this.urlConnection = urlConnection;
+            this.status = status;
+            this.headers = headers;
+        }
+
+        @Override
+        public int getStatus() {
+            return this.status;
+        }
+
+        @Override
+        public Map<String, String> getHeaders() {
+            return this.headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (this.body == null) {
+                final InputStream stream = this.status >= HttpURLConnection.HTTP_BAD_REQUEST
+                    ? this.urlConnection.getErrorStream()
+                    : this.urlConnection.getInputStream();
+                this.body = new FilterInputStream(stream != null ? stream : new ByteArrayInputStream(new byte[0])) {
+                    @Override
+                    public void close() throws IOException {
+                        UrlConnectionResponse.this.bodyClosed = true;
+                        super.close();
+                    }
+                };
+            }
+            return this.body;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.bodyClosed) {
+                return;
+            }
+            try (final InputStream stream = this.getBody()) {
+                // read remaining bytes, then connection goes back to keep-alive cache on close
+                final byte[] buffer = new byte[8192];
+                int drained = 0;
+                int read;
+                while (drained < MAX_DRAIN && (read = stream.read(buffer)) != -1) {
+                    drained += read;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package top.infra.maven.extension.mavenbuild.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of property layers (e.g. user, system, model, project properties), looks up a key layer by layer
+ * instead of copying all layers into one map. Earlier layers override later ones.
+ */
+public final class LayeredPropertyView {
+
+    private final List<? extends Map<?, ?>> layers;
+
+    private LayeredPropertyView(final List<? extends Map<?, ?>> layers) {
+        this.layers = layers;
+    }
+
+    /**
+     * View of layers.
+     *
+     * @param layers highest precedence first, null layers are skipped (e.g. {@link java.util.Properties} or Map&lt;String, String&gt;)
+     * @return view
+     */
+    public static LayeredPropertyView of(final Map<?, ?>... layers) {
+        return new LayeredPropertyView(Arrays.asList(layers));
+    }
+
+    /**
+     * View of layers.
+     *
+     * @param layers highest precedence first, not copied
+     * @return view
+     */
+    public static LayeredPropertyView of(final List<? extends Map<?, ?>> layers) {
+        return new LayeredPropertyView(Collections.unmodifiableList(layers));
+    }
+
+    public boolean containsKey(final String key) {
+        return this.getProperty(key) != null;
+    }
+
+    /**
+     * Value of key in first layer that has it.
+     *
+     * @param key key
+     * @return value, null if not found
+     */
+    public String getProperty(final String key) {
+        for (final Map<?, ?> layer : this.layers) {
+            final Object value = layer != null ? layer.get(key) : null;
+            if (value != null) {
+                return value.toString();
+            }
+        }
+        return null;
+    }
+
+    public String getProperty(final String key, final String defaultValue) {
+        final String value = this.getProperty(key);
+        return value != null ? value : defaultValue;
+    }
+}
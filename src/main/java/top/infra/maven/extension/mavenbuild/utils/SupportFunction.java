@@ -142,6 +142,25 @@ public abstract class SupportFunction {
         }
     }
 
+    /**
+     * SHA-256 hex digest of value.
+     *
+     * @param value value
+     * @return hex string (upper case)
+     */
+    public static String sha256(final String value) {
+        return sha256(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String sha256(final byte[] bytes) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return bytesToHex(digest.digest(bytes));
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new UnsupportedOperationException(ex);
+        }
+    }
+
     private static String bytesToHex(final byte[] bytes) {
         final char[] hexChars = new char[bytes.length * 2];
         for (int j = 0; j < bytes.length; j++) {
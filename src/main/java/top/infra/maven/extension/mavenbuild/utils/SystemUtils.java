@@ -7,10 +7,13 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -73,9 +76,21 @@ public abstract class SystemUtils {
      */
     public static boolean existsInPath(final String exec) {
         // return exec(String.format("type -p %s", exec)).getKey() == 0;
+        return findInPath(exec).isPresent();
+    }
+
+    /**
+     * Find executable in PATH (like 'type -p', without spawning a process).
+     *
+     * @param exec executable name
+     * @return path of first match
+     */
+    public static Optional<Path> findInPath(final String exec) {
         return Stream.of(System.getenv("PATH").split(Pattern.quote(File.pathSeparator)))
             .map(Paths::get)
-            .anyMatch(path -> path.resolve(exec).toFile().exists());
+            .map(path -> path.resolve(exec))
+            .filter(path -> path.toFile().exists())
+            .findFirst();
     }
 
     public static String os() {
@@ -107,6 +122,22 @@ public abstract class SystemUtils {
         return result;
     }
 
+    /**
+     * ForkJoinPool (one worker per processor) whose workers run with context classloader of calling thread (e.g. extension realm).
+     * Workers of default factory take it from whichever thread happens to start them, common pool uses the system classloader.
+     *
+     * @return pool, caller shuts it down
+     */
+    public static ForkJoinPool newForkJoinPool() {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        final ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        };
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), threadFactory, null, false);
+    }
+
     public static String systemJavaIoTmp() {
         return System.getProperty("java.io.tmpdir");
     }
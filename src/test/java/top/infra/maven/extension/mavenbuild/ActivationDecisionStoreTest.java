@@ -0,0 +1,77 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import top.infra.maven.extension.mavenbuild.utils.SupportFunction;
+import top.infra.maven.logging.Logger;
+import top.infra.maven.logging.LoggerSlf4jImpl;
+
+public class ActivationDecisionStoreTest {
+
+    private static final org.slf4j.Logger slf4jLogger = LoggerFactory.getLogger(ActivationDecisionStoreTest.class);
+
+    private static Logger logger() {
+        return new LoggerSlf4jImpl(slf4jLogger);
+    }
+
+    @Test
+    public void testPersistUsedDecisions() throws Exception {
+        final Path cacheDirectory = Files.createTempDirectory("activation-decision-store");
+
+        final ActivationDecisionStore first = new ActivationDecisionStore(logger());
+        first.load(cacheDirectory);
+        first.put("JavaVersionActivator|java8|java.version=1.8", true);
+        first.put("JavaVersionActivator|java11|java.version=1.8", false);
+        first.save();
+
+        final ActivationDecisionStore second = new ActivationDecisionStore(logger());
+        second.load(cacheDirectory);
+        assertEquals(Optional.of(true), second.find("JavaVersionActivator|java8|java.version=1.8"));
+        // fingerprint changed
+        assertFalse(second.find("JavaVersionActivator|java8|java.version=11").isPresent());
+        second.put("JavaVersionActivator|java8|java.version=11", false);
+        second.save();
+
+        // decisions not used by second build (e.g. of another project) are kept
+        final ActivationDecisionStore third = new ActivationDecisionStore(logger());
+        third.load(cacheDirectory);
+        assertEquals(Optional.of(true), third.find("JavaVersionActivator|java8|java.version=1.8"));
+        assertEquals(Optional.of(false), third.find("JavaVersionActivator|java8|java.version=11"));
+        assertEquals(Optional.of(false), third.find("JavaVersionActivator|java11|java.version=1.8"));
+    }
+
+    @Test
+    public void testMergeConcurrentBuildsAndExpire() throws Exception {
+        final Path cacheDirectory = Files.createTempDirectory("activation-decision-store");
+        final String expired = "JavaVersionActivator|java8|java.version=1.7";
+        Files.write(cacheDirectory.resolve("activation-decisions.properties"),
+            (SupportFunction.sha256(expired) + "=true,1000\n").getBytes(UTF_8));
+
+        // both loaded before either saved
+        final ActivationDecisionStore projectA = new ActivationDecisionStore(logger());
+        projectA.load(cacheDirectory);
+        final ActivationDecisionStore projectB = new ActivationDecisionStore(logger());
+        projectB.load(cacheDirectory);
+
+        projectA.put("InfrastructureActivator|infrastructure_ossrh|infrastructure=ossrh", true);
+        projectA.save();
+        projectB.put("JavaVersionActivator|java11|java.version=11", true);
+        projectB.save();
+
+        final ActivationDecisionStore next = new ActivationDecisionStore(logger());
+        next.load(cacheDirectory);
+        assertEquals(Optional.of(true), next.find("InfrastructureActivator|infrastructure_ossrh|infrastructure=ossrh"));
+        assertEquals(Optional.of(true), next.find("JavaVersionActivator|java11|java.version=11"));
+        // not used for more than max age
+        assertFalse(next.find(expired).isPresent());
+    }
+}
@@ -0,0 +1,104 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static org.junit.Assert.assertEquals;
+import static top.infra.maven.extension.mavenbuild.CiOption.FAST;
+import static top.infra.maven.extension.mavenbuild.CiOption.MAVEN_JAVADOC_SKIP;
+import static top.infra.maven.extension.mavenbuild.CiOption.MAVEN_SOURCE_SKIP;
+import static top.infra.maven.extension.mavenbuild.Constants.BOOL_STRING_FALSE;
+import static top.infra.maven.extension.mavenbuild.Constants.BOOL_STRING_TRUE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import top.infra.maven.logging.Logger;
+import top.infra.maven.logging.LoggerSlf4jImpl;
+
+public class CiOptionAccessorTest {
+
+    private static final org.slf4j.Logger slf4jLogger = LoggerFactory.getLogger(CiOptionAccessorTest.class);
+
+    private static Logger logger() {
+        return new LoggerSlf4jImpl(slf4jLogger);
+    }
+
+    @Test
+    public void testSnapshotRebuiltOnChange() {
+        final Properties systemProperties = new Properties();
+        final Properties userProperties = new Properties();
+
+        final CiOptionAccessor ciOpts = new CiOptionAccessor(
+            GitProperties.newBlankInstance(logger()),
+            systemProperties,
+            userProperties
+        );
+
+        assertEquals(BOOL_STRING_FALSE, ciOpts.getOption(MAVEN_SOURCE_SKIP).orElse(null));
+        assertEquals(BOOL_STRING_FALSE, ciOpts.getOption(MAVEN_JAVADOC_SKIP).orElse(null));
+
+        // added property is detected without invalidate
+        userProperties.setProperty(FAST.getPropertyName(), BOOL_STRING_TRUE);
+        assertEquals(BOOL_STRING_TRUE, ciOpts.getOption(MAVEN_SOURCE_SKIP).orElse(null));
+        assertEquals(BOOL_STRING_TRUE, ciOpts.getOption(MAVEN_JAVADOC_SKIP).orElse(null));
+
+        systemProperties.setProperty(FAST.getSystemPropertyName(), BOOL_STRING_FALSE);
+        assertEquals(BOOL_STRING_FALSE, ciOpts.getOption(MAVEN_JAVADOC_SKIP).orElse(null));
+
+        // changed value of existing property is memoized until invalidated
+        systemProperties.setProperty(FAST.getSystemPropertyName(), BOOL_STRING_TRUE);
+        assertEquals(BOOL_STRING_FALSE, ciOpts.getOption(MAVEN_JAVADOC_SKIP).orElse(null));
+        ciOpts.invalidate();
+        assertEquals(BOOL_STRING_TRUE, ciOpts.getOption(MAVEN_JAVADOC_SKIP).orElse(null));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final Properties userProperties = new Properties();
+        userProperties.setProperty(FAST.getPropertyName(), BOOL_STRING_TRUE);
+        final CiOptionAccessor ciOpts = new CiOptionAccessor(GitProperties.newBlankInstance(logger()), new Properties(), userProperties);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Map<CiOption, Optional<String>>>> futures = new ArrayList<>();
+            for (int idx = 0; idx < 8; idx++) {
+                futures.add(executor.submit(() -> Arrays.stream(CiOption.values())
+                    .collect(Collectors.toMap(Function.identity(), ciOpts::getOption))));
+            }
+            final Map<CiOption, Optional<String>> expected = futures.get(0).get(10L, TimeUnit.SECONDS);
+            assertEquals(Optional.of(BOOL_STRING_TRUE), expected.get(MAVEN_SOURCE_SKIP));
+            for (final Future<Map<CiOption, Optional<String>>> future : futures) {
+                assertEquals(expected, future.get(10L, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSnapshotSameAsDirectEvaluation() {
+        final Properties systemProperties = new Properties();
+        final Properties userProperties = new Properties();
+        userProperties.setProperty(FAST.getPropertyName(), BOOL_STRING_TRUE);
+        final GitProperties gitProperties = GitProperties.newBlankInstance(logger());
+
+        final CiOptionAccessor ciOpts = new CiOptionAccessor(gitProperties, systemProperties, userProperties);
+        for (final CiOption ciOption : new CiOption[]{FAST, MAVEN_JAVADOC_SKIP, MAVEN_SOURCE_SKIP, CiOption.CACHE_INFRASTRUCTURE_PATH}) {
+            assertEquals(
+                ciOption.name(),
+                ciOption.getValue(gitProperties, systemProperties, userProperties),
+                ciOpts.getOption(ciOption));
+        }
+    }
+}
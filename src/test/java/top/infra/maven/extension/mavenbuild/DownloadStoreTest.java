@@ -0,0 +1,61 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import top.infra.maven.logging.Logger;
+import top.infra.maven.logging.LoggerSlf4jImpl;
+
+public class DownloadStoreTest {
+
+    private static final org.slf4j.Logger slf4jLogger = LoggerFactory.getLogger(DownloadStoreTest.class);
+
+    private static Logger logger() {
+        return new LoggerSlf4jImpl(slf4jLogger);
+    }
+
+    @Test
+    public void testWithLock() throws Exception {
+        final Path cacheDirectory = Files.createTempDirectory("download-store");
+        final DownloadStore store = new DownloadStore(logger(), cacheDirectory);
+
+        final AtomicInteger holders = new AtomicInteger(0);
+        final AtomicInteger maxHolders = new AtomicInteger(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int idx = 0; idx < 64; idx++) {
+                final String path = "file" + (idx % 4);
+                futures.add(executor.submit(() -> store.entry("repo", "master", path).withLock(() -> {
+                    final int current = holders.incrementAndGet();
+                    maxHolders.accumulateAndGet(current, Math::max);
+                    holders.decrementAndGet();
+                    return current;
+                })));
+            }
+            for (final Future<Integer> future : futures) {
+                future.get(30L, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // at most one holder per entry, 4 entries
+        assertTrue(maxHolders.get() <= 4);
+        // lock map does not grow
+        assertEquals(0, DownloadStore.locks());
+    }
+}
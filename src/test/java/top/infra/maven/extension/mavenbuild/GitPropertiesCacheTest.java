@@ -0,0 +1,71 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import top.infra.maven.logging.Logger;
+import top.infra.maven.logging.LoggerSlf4jImpl;
+
+public class GitPropertiesCacheTest {
+
+    private static final org.slf4j.Logger slf4jLogger = LoggerFactory.getLogger(GitPropertiesCacheTest.class);
+
+    private static Logger logger() {
+        return new LoggerSlf4jImpl(slf4jLogger);
+    }
+
+    private static void commit(final Git git, final int times) throws Exception {
+        for (int idx = 0; idx < times; idx++) {
+            git.commit().setMessage("commit " + idx).setAllowEmpty(true).call();
+        }
+    }
+
+    @Test
+    public void testCountAndProperties() throws Exception {
+        final Path workTree = Files.createTempDirectory("git-properties-cache-test");
+        final Path cacheDirectory = Files.createTempDirectory("git-properties-cache");
+        try (final Git git = Git.init().setDirectory(workTree.toFile()).call()) {
+            commit(git, 3);
+
+            final GitPropertiesCache cache = new GitPropertiesCache(logger(), cacheDirectory, git.getRepository());
+            final ObjectId head1 = git.getRepository().resolve("HEAD");
+            try (final RevWalk walk = new RevWalk(git.getRepository())) {
+                assertEquals(3, cache.count(walk, walk.parseCommit(head1)));
+            }
+
+            final String cacheKey = GitPropertiesCache.cacheKey(git.getRepository(), head1);
+            assertFalse(cache.load(cacheKey).isPresent());
+            cache.save(cacheKey, Collections.singletonMap("git.count", "3"));
+            final Map<String, String> loaded = cache.load(cacheKey).orElse(null);
+            assertEquals(Collections.singletonMap("git.count", "3"), loaded);
+
+            commit(git, 2);
+            final ObjectId head2 = git.getRepository().resolve("HEAD");
+            assertFalse(cache.load(GitPropertiesCache.cacheKey(git.getRepository(), head2)).isPresent());
+            try (final RevWalk walk = new RevWalk(git.getRepository())) {
+                // derived from cached count of head1
+                assertEquals(5, cache.count(walk, walk.parseCommit(head2)));
+            }
+
+            // a new cache instance reads persisted counts
+            try (final RevWalk walk = new RevWalk(git.getRepository())) {
+                assertEquals(5, new GitPropertiesCache(logger(), cacheDirectory, git.getRepository())
+                    .count(walk, walk.parseCommit(head2)));
+            }
+            assertTrue(new File(cache.toString()).isDirectory());
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static top.infra.maven.extension.mavenbuild.utils.StubHttpTransport.response;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import top.infra.maven.extension.mavenbuild.utils.DownloadUtils;
+import top.infra.maven.extension.mavenbuild.utils.HttpTransport;
+import top.infra.maven.extension.mavenbuild.utils.StubHttpTransport;
+import top.infra.maven.logging.Logger;
+import top.infra.maven.logging.LoggerSlf4jImpl;
+
+public class GitRepositoryTest {
+
+    private static final org.slf4j.Logger slf4jLogger = LoggerFactory.getLogger(GitRepositoryTest.class);
+
+    private static Logger logger() {
+        return new LoggerSlf4jImpl(slf4jLogger);
+    }
+
+    @Test
+    public void testConditionalDownload() throws Exception {
+        final byte[] body = "<settings/>".getBytes(UTF_8);
+        final AtomicInteger fullResponses = new AtomicInteger(0);
+        final AtomicInteger notModifiedResponses = new AtomicInteger(0);
+
+        final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/repo/raw/master/src/main/maven/settings.xml", exchange -> {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                fullResponses.incrementAndGet();
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                exchange.sendResponseHeaders(200, body.length);
+                try (final OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            final Path cacheDirectory = Files.createTempDirectory("git-repository-cache");
+            final Path targetFile = Files.createTempDirectory("git-repository-target").resolve("settings.xml");
+            final String repo = "http://127.0.0.1:" + server.getAddress().getPort() + "/repo";
+            final GitRepository gitRepository = new GitRepository(logger(), repo, "master", null, cacheDirectory);
+
+            gitRepository.download("src/main/maven/settings.xml", targetFile.toString(), true, false, false);
+            assertEquals(1, fullResponses.get());
+
+            // revalidate without '-U'
+            gitRepository.download("src/main/maven/settings.xml", targetFile.toString(), true, false, false);
+            // '-U'
+            gitRepository.download("src/main/maven/settings.xml", targetFile.toString(), true, false, true);
+            assertEquals(1, fullResponses.get());
+            assertEquals(2, notModifiedResponses.get());
+            assertEquals("<settings/>", new String(Files.readAllBytes(targetFile), UTF_8));
+
+            // offline, no request
+            gitRepository.download("src/main/maven/settings.xml", targetFile.toString(), true, true, false);
+            assertEquals(2, notModifiedResponses.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testBatchDownload() throws Exception {
+        final AtomicInteger inFlight = new AtomicInteger(0);
+        final AtomicInteger maxInFlight = new AtomicInteger(0);
+        final CountDownLatch allStarted = new CountDownLatch(3);
+
+        final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/repo/raw/master/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            allStarted.countDown();
+            try {
+                // sequential downloads time out here
+                allStarted.await(5L, TimeUnit.SECONDS);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            final byte[] body = exchange.getRequestURI().getPath().getBytes(UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (final OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            final Path targetDirectory = Files.createTempDirectory("git-repository-batch");
+            final String repo = "http://127.0.0.1:" + server.getAddress().getPort() + "/repo";
+            final GitRepository gitRepository = new GitRepository(logger(), repo, "master", null, null);
+
+            gitRepository.download(Arrays.asList(
+                new GitRepository.Download("a.xml", targetDirectory.resolve("a.xml").toString(), true),
+                new GitRepository.Download("b.xml", targetDirectory.resolve("b.xml").toString(), true),
+                new GitRepository.Download("c.xml", targetDirectory.resolve("c.xml").toString(), true)
+            ), false, true);
+
+            assertEquals(3, maxInFlight.get());
+            assertEquals("/repo/raw/master/a.xml", new String(Files.readAllBytes(targetDirectory.resolve("a.xml")), UTF_8));
+            assertEquals("/repo/raw/master/c.xml", new String(Files.readAllBytes(targetDirectory.resolve("c.xml")), UTF_8));
+            assertTrue(targetDirectory.resolve("b.xml").toFile().exists());
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGitLabStreamingDecode() throws Exception {
+        final String content = "<toolchains>\n  <toolchain/>\n</toolchains>\n";
+        // GitLab escapes '/' and may break lines
+        final String base64 = Base64.getMimeEncoder(16, "\n".getBytes(UTF_8)).encodeToString(content.getBytes(UTF_8))
+            .replace("/", "\\/").replace("\n", "\\n");
+        final String json = "{\"file_name\": \"toolchains.xml\", \"size\": 42, \"encoding\": \"base64\", "
+            + "\"content\": \"" + base64 + "\", \"last\": {\"a\": [1, \"}\"]}, \"blob_id\": \"b1\"}";
+
+        final String repo = "http://gitlab/api/v4/projects/1/repository/files";
+        final String url = repo + "/src%2Fmain%2Fmaven%2Ftoolchains.xml?ref=master";
+        final StubHttpTransport stub = new StubHttpTransport().on(url, response(200, json));
+
+        final HttpTransport transport = DownloadUtils.getTransport();
+        DownloadUtils.setTransport(stub);
+        try {
+            final Path cacheDirectory = Files.createTempDirectory("git-repository-cache");
+            final Path targetFile = Files.createTempDirectory("git-repository-gitlab").resolve("toolchains.xml");
+            final GitRepository gitRepository = new GitRepository(logger(), repo, "master", "token", cacheDirectory);
+
+            gitRepository.download("src/main/maven/toolchains.xml", targetFile.toString(), true, false, true);
+            assertEquals(content, new String(Files.readAllBytes(targetFile), UTF_8));
+            // no intermediate json file
+            assertEquals(1, targetFile.getParent().toFile().list().length);
+
+            // blob id unchanged, HEAD only
+            stub.on(url, response(200, null, "X-Gitlab-Blob-Id", "b1"));
+            gitRepository.download("src/main/maven/toolchains.xml", targetFile.toString(), true, false, true);
+            assertEquals(Arrays.asList("GET " + url, "HEAD " + url), stub.getRequests());
+            assertEquals(content, new String(Files.readAllBytes(targetFile), UTF_8));
+        } finally {
+            DownloadUtils.setTransport(transport);
+        }
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        final byte[] body = "<settings/>".getBytes(UTF_8);
+        final AtomicInteger requests = new AtomicInteger(0);
+
+        final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/repo/raw/master/src/main/maven/settings.xml", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(300L);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (final OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            final Path cacheDirectory = Files.createTempDirectory("git-repository-cache");
+            final Path targetDirectory = Files.createTempDirectory("git-repository-single-flight");
+            final String repo = "http://127.0.0.1:" + server.getAddress().getPort() + "/repo";
+
+            // e.g. parallel builds on same host, each with its own target file
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            final List<CompletableFuture<Void>> futures = IntStream.range(0, 4)
+                .mapToObj(idx -> CompletableFuture.runAsync(() -> new GitRepository(logger(), repo, "master", null, cacheDirectory)
+                    .download("src/main/maven/settings.xml", targetDirectory.resolve(idx + ".xml").toString(), true, false, true),
+                    executor))
+                .collect(Collectors.toList());
+            futures.forEach(CompletableFuture::join);
+            executor.shutdown();
+
+            assertEquals(1, requests.get());
+            for (int idx = 0; idx < 4; idx++) {
+                assertEquals("<settings/>", new String(Files.readAllBytes(targetDirectory.resolve(idx + ".xml")), UTF_8));
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.internal.storage.file.RefDirectory;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import top.infra.maven.logging.Logger;
+import top.infra.maven.logging.LoggerSlf4jImpl;
+
+public class GitTagIndexTest {
+
+    private static final org.slf4j.Logger slf4jLogger = LoggerFactory.getLogger(GitTagIndexTest.class);
+
+    private static Logger logger() {
+        return new LoggerSlf4jImpl(slf4jLogger);
+    }
+
+    @Test
+    public void testLooseAndPackedTags() throws Exception {
+        final Path workTree = Files.createTempDirectory("git-tag-index-test");
+        final Path cacheDirectory = Files.createTempDirectory("git-tag-index-cache");
+        try (final Git git = Git.init().setDirectory(workTree.toFile()).call()) {
+            final RevCommit first = git.commit().setMessage("first").setAllowEmpty(true).call();
+            git.tag().setName("v1.0.0").setAnnotated(true).setMessage("annotated").call();
+            git.tag().setName("v1.0.0-lightweight").setAnnotated(false).call();
+            final RevCommit second = git.commit().setMessage("second").setAllowEmpty(true).call();
+            git.tag().setName("release/v2.0.0").setAnnotated(true).setMessage("annotated").call();
+
+            final GitTagIndex loose = GitTagIndex.of(git.getRepository());
+            assertEquals(Arrays.asList("refs/tags/v1.0.0", "refs/tags/v1.0.0-lightweight"), loose.tags(first));
+            assertEquals(Collections.singletonList("refs/tags/release/v2.0.0"), loose.tags(second));
+
+            ((RefDirectory) git.getRepository().getRefDatabase()).pack(Arrays.asList(
+                "refs/tags/v1.0.0", "refs/tags/v1.0.0-lightweight", "refs/tags/release/v2.0.0"));
+            final GitTagIndex packed = GitTagIndex.of(git.getRepository());
+            assertEquals(loose.tags(first), packed.tags(first));
+            assertEquals(loose.tags(second), packed.tags(second));
+            assertTrue(packed.tags(ObjectId.zeroId()).isEmpty());
+
+            final GitPropertiesCache cache = new GitPropertiesCache(logger(), cacheDirectory, git.getRepository());
+            assertEquals(loose.tags(first), cache.tagIndex(git.getRepository()).tags(first));
+            // read from cache
+            assertEquals(loose.tags(second), cache.tagIndex(git.getRepository()).tags(second));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import top.infra.maven.logging.Logger;
+import top.infra.maven.logging.LoggerSlf4jImpl;
+
+public class GpgKeyringStateTest {
+
+    private static final org.slf4j.Logger slf4jLogger = LoggerFactory.getLogger(GpgKeyringStateTest.class);
+
+    private static Logger logger() {
+        return new LoggerSlf4jImpl(slf4jLogger);
+    }
+
+    @Test
+    public void testMatches() throws Exception {
+        final Path dotGnupg = Files.createTempDirectory("gnupg");
+        Files.write(dotGnupg.resolve("pubring.kbx"), "key".getBytes(StandardCharsets.UTF_8));
+
+        final GpgKeyringState state = new GpgKeyringState(logger(), dotGnupg);
+        assertFalse(state.matches("keyName=KEY"));
+
+        state.save("keyName=KEY");
+        assertTrue(new GpgKeyringState(logger(), dotGnupg).matches("keyName=KEY"));
+        // inputs changed
+        assertFalse(state.matches("keyName=OTHER"));
+
+        // keyring changed (e.g. wiped or another key imported)
+        Files.write(dotGnupg.resolve("pubring.kbx"), "keys".getBytes(StandardCharsets.UTF_8));
+        assertFalse(state.matches("keyName=KEY"));
+    }
+}
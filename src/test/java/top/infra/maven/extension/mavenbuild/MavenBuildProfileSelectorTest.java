@@ -0,0 +1,184 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.maven.model.Activation;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelProblemCollector;
+import org.apache.maven.model.profile.DefaultProfileActivationContext;
+import org.apache.maven.model.profile.ProfileActivationContext;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import top.infra.maven.extension.mavenbuild.model.ProjectBuilderActivatorModelResolver;
+import top.infra.maven.extension.mavenbuild.model.StubModelBuilder;
+
+public class MavenBuildProfileSelectorTest {
+
+    private static final int MODULES = 500;
+
+    private static final ModelProblemCollector PROBLEMS = request -> {
+    };
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static Profile profile(final String id) {
+        final Profile profile = new Profile();
+        profile.setId(id);
+        profile.setSource("pom");
+        return profile;
+    }
+
+    private static List<Profile> profiles() {
+        return Arrays.asList(profile("java8"), profile("java11"), profile("module_0_only"));
+    }
+
+    private static ProfileActivationContext context(final File basedir) {
+        return new DefaultProfileActivationContext()
+            .setProjectDirectory(basedir)
+            .setSystemProperties(Collections.singletonMap("java.version", "1.8.0_222"));
+    }
+
+    @Test
+    public void testActivatorIndex() {
+        final AtomicInteger supportedCalls = new AtomicInteger(0);
+        final MavenBuildProfileSelector selector = new MavenBuildProfileSelector();
+        final ConsoleLogger logger = new ConsoleLogger(org.codehaus.plexus.logging.Logger.LEVEL_WARN, "test");
+        selector.logger = logger;
+        selector.customActivators = Collections.singletonList(new CustomActivator() {
+            @Override
+            public boolean isActive(final Profile profile, final ProfileActivationContext context, final ModelProblemCollector problems) {
+                return true;
+            }
+
+            @Override
+            public boolean presentInConfig(
+                final Profile profile,
+                final ProfileActivationContext context,
+                final ModelProblemCollector problems
+            ) {
+                return true;
+            }
+
+            @Override
+            public boolean supported(final Profile profile) {
+                supportedCalls.incrementAndGet();
+                return profile.getId().endsWith("_only");
+            }
+        });
+
+        final Profile conditional = profile("module_0_only");
+        conditional.setActivation(new Activation());
+        conditional.getActivation().setJdk("1.5");
+        for (int idx = 0; idx < 10; idx++) {
+            assertEquals(Collections.singletonList("module_0_only"), selector
+                .getActiveProfiles(profiles(), context(null), PROBLEMS)
+                .stream()
+                .map(Profile::getId)
+                .collect(Collectors.toList()));
+            // has other condition and not default activated
+            assertEquals(Collections.emptyList(),
+                selector.getActiveProfiles(Collections.singletonList(conditional), context(null), PROBLEMS));
+        }
+        assertEquals(3, supportedCalls.get());
+    }
+
+    @Test
+    public void testParallelReactor() throws Exception {
+        final Path root = this.temporaryFolder.newFolder("profile-selector-reactor").toPath();
+        final List<File> modules = new ArrayList<>();
+        for (int idx = 0; idx < MODULES; idx++) {
+            final Path module = Files.createDirectories(root.resolve("module-" + idx));
+            Files.write(module.resolve("pom.xml"), "<project/>".getBytes(UTF_8));
+            modules.add(module.toFile());
+        }
+
+        final MavenBuildProfileSelector selector = new MavenBuildProfileSelector();
+        final StubModelBuilder modelBuilder = new StubModelBuilder(request -> {
+            // Maven selects profiles of the pom being built, activators call back into the resolver
+            final File basedir = request.getPomFile().getParentFile();
+            selector.getActiveProfiles(profiles(), context(basedir), PROBLEMS);
+
+            final Model model = new Model();
+            model.setGroupId("top.infra.test");
+            model.setArtifactId(basedir.getName());
+            return model;
+        });
+
+        final ConsoleLogger logger = new ConsoleLogger(org.codehaus.plexus.logging.Logger.LEVEL_WARN, "test");
+        final ProjectBuilderActivatorModelResolver resolver = new ProjectBuilderActivatorModelResolver(logger, modelBuilder, null, null) {
+            @Override
+            protected ModelBuildingRequest modelBuildingRequest(final ProfileActivationContext context, final File pomFile) {
+                final Properties systemProperties = new Properties();
+                systemProperties.putAll(context.getSystemProperties());
+                return new DefaultModelBuildingRequest().setPomFile(pomFile).setSystemProperties(systemProperties);
+            }
+        };
+        selector.logger = logger;
+        selector.customActivators = Arrays.asList(
+            new JavaVersionActivator(logger, resolver),
+            new AbstractCustomActivator(logger, resolver) {
+                @Override
+                protected boolean isActive(
+                    final Model model,
+                    final Profile profile,
+                    final ProfileActivationContext context,
+                    final ModelProblemCollector problems
+                ) {
+                    return "module-0".equals(model.getArtifactId());
+                }
+
+                @Override
+                public boolean supported(final Profile profile) {
+                    return profile.getId().endsWith("_only");
+                }
+            }
+        );
+
+        // each module is selected by several threads at once
+        final ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            final List<CompletableFuture<List<String>>> futures = IntStream.range(0, MODULES * 4)
+                .mapToObj(idx -> CompletableFuture.supplyAsync(() -> selector
+                        .getActiveProfiles(profiles(), context(modules.get(idx % MODULES)), PROBLEMS)
+                        .stream()
+                        .map(Profile::getId)
+                        .collect(Collectors.toList()),
+                    executor))
+                .collect(Collectors.toList());
+
+            for (int idx = 0; idx < futures.size(); idx++) {
+                final List<String> expected = idx % MODULES == 0
+                    ? Arrays.asList("java8", "module_0_only")
+                    : Collections.singletonList("java8");
+                assertEquals(expected, futures.get(idx).join());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(MODULES, modelBuilder.getBuilds());
+    }
+}
@@ -0,0 +1,125 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class MavenEventAwareDispatcherTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(MavenEventAwareDispatcherTest.class);
+
+    @Test
+    public void testDependencies() {
+        final List<String> called = new CopyOnWriteArrayList<>();
+        // independent handlers wait for each other, they must run concurrently to finish
+        final CountDownLatch latch = new CountDownLatch(2);
+
+        final First first = new First();
+        final Independent independentA = new Independent();
+        final Independent independentB = new Independent();
+        final Last last = new Last();
+        final List<MavenEventAware> eventAwares = Arrays.asList(first, independentA, independentB, last);
+
+        final MavenEventAwareTimings timings = new MavenEventAwareTimings();
+        final MavenEventAwareDispatcher dispatcher = new MavenEventAwareDispatcher(eventAwares, timings);
+        try {
+            assertEquals(Collections.emptyList(), dispatcher.getDependencies(first));
+            assertEquals(Collections.singletonList(first), dispatcher.getDependencies(independentA));
+            assertEquals(Arrays.asList(first, independentA, independentB), dispatcher.getDependencies(last));
+
+            dispatcher.dispatch("test", it -> {
+                called.add(it.getClass().getSimpleName());
+                if (it instanceof Independent) {
+                    latch.countDown();
+                    try {
+                        assertTrue(latch.await(10, TimeUnit.SECONDS));
+                    } catch (final InterruptedException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            });
+        } finally {
+            dispatcher.shutdown();
+        }
+
+        logger.info("called: {}", called);
+        assertEquals(4, called.size());
+        assertEquals("First", called.get(0));
+        assertEquals("Last", called.get(3));
+        assertEquals(4, timings.getTimings().size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCircularDependencies() {
+        MavenEventAwareDispatcher.dependencies(Arrays.asList(new CircularA(), new CircularB()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testException() {
+        final MavenEventAwareDispatcher dispatcher = new MavenEventAwareDispatcher(
+            Arrays.asList(new First(), new Last()), new MavenEventAwareTimings());
+        try {
+            dispatcher.dispatch("test", it -> {
+                throw new IllegalArgumentException(it.getClass().getSimpleName());
+            });
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    private static class First implements MavenEventAware {
+
+        @Override
+        public int getOrder() {
+            return 1;
+        }
+
+        @Override
+        public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+            return Optional.of(Collections.emptyList());
+        }
+    }
+
+    private static class Independent implements MavenEventAware {
+
+        @Override
+        public int getOrder() {
+            return 2;
+        }
+
+        @Override
+        public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+            return Optional.of(Collections.singletonList(First.class));
+        }
+    }
+
+    private static class Last implements MavenEventAware {
+    }
+
+    private static class CircularA implements MavenEventAware {
+
+        @Override
+        public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+            return Optional.of(Collections.singletonList(CircularB.class));
+        }
+    }
+
+    private static class CircularB implements MavenEventAware {
+
+        @Override
+        public Optional<List<Class<? extends MavenEventAware>>> dependsOn() {
+            return Optional.of(Collections.singletonList(CircularA.class));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class MavenEventAwareTimingsTest {
+
+    private static MavenEventAware eventAware(final int order) {
+        return new MavenEventAware() {
+            @Override
+            public int getOrder() {
+                return order;
+            }
+        };
+    }
+
+    @Test
+    public void testSummaryTop() {
+        final MavenEventAwareTimings timings = new MavenEventAwareTimings();
+        final MavenEventAware eventAware = eventAware(1);
+        for (int idx = 1; idx <= 5; idx++) {
+            timings.record("event" + idx, eventAware, TimeUnit.MILLISECONDS.toNanos(idx));
+        }
+
+        final Entry<List<String>, List<String>> summary = timings.summary(2);
+        // 1 total and 2 slowest events
+        assertEquals(3, summary.getKey().size());
+        assertTrue(summary.getKey().get(0).startsWith("eventAware total:       15 ms"));
+        assertTrue(summary.getKey().get(1).endsWith("event: [event5]"));
+        assertTrue(summary.getKey().get(2).endsWith("event: [event4]"));
+        assertEquals(3, summary.getValue().size());
+        assertTrue(summary.getValue().get(2).endsWith("event: [event1]"));
+    }
+
+    @Test
+    public void testTimeAndJson() {
+        final MavenEventAwareTimings timings = new MavenEventAwareTimings();
+        final MavenEventAware eventAware = eventAware(7);
+        try {
+            timings.time("init", eventAware, () -> {
+                throw new IllegalStateException("failed");
+            });
+        } catch (final IllegalStateException ex) {
+            // expected, recorded anyway
+        }
+
+        assertEquals(1, timings.getTimings().size());
+        final JSONObject json = timings.toJson();
+        final JSONObject timing = json.getJSONArray("timings").getJSONObject(0);
+        assertEquals("init", timing.getString("event"));
+        assertEquals(7, timing.getInt("order"));
+        assertEquals(1, json.getJSONObject("totalMillis").length());
+    }
+}
@@ -0,0 +1,90 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.profile.DefaultProfileActivationContext;
+import org.apache.maven.model.profile.ProfileActivationContext;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import top.infra.maven.extension.mavenbuild.model.ProjectBuilderActivatorModelResolver;
+import top.infra.maven.extension.mavenbuild.model.StubModelBuilder;
+
+public class ModelPrewarmEventAwareTest {
+
+    private static final String ROOT = "<project><modelVersion>4.0.0</modelVersion>"
+        + "<groupId>top.infra.test</groupId><artifactId>root</artifactId><version>1.0.0-SNAPSHOT</version><packaging>pom</packaging>"
+        + "<modules><module>a</module><module>b</module></modules></project>";
+
+    /**
+     * Parent from repository, raw model is not enough, effective model is built on pre-warm.
+     */
+    private static final String MODULE = "<project><modelVersion>4.0.0</modelVersion>"
+        + "<parent><groupId>top.infra.test</groupId><artifactId>external</artifactId><version>1.0.0</version>"
+        + "<relativePath/></parent><artifactId>%s</artifactId></project>";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testPrewarmAfterGoalEditor() throws Exception {
+        assertTrue(new ModelPrewarmEventAware(null).dependsOn().orElseThrow(IllegalStateException::new)
+            .contains(MavenGoalEditorEventAware.class));
+
+        final Path root = this.temporaryFolder.getRoot().toPath();
+        Files.write(root.resolve("pom.xml"), ROOT.getBytes(UTF_8));
+        for (final String module : new String[]{"a", "b"}) {
+            Files.write(Files.createDirectories(root.resolve(module)).resolve("pom.xml"), String.format(MODULE, module).getBytes(UTF_8));
+        }
+
+        final StubModelBuilder modelBuilder = new StubModelBuilder(request -> new Model());
+        final ConsoleLogger logger = new ConsoleLogger(org.codehaus.plexus.logging.Logger.LEVEL_WARN, "test");
+        final ProjectBuilderActivatorModelResolver resolver = new ProjectBuilderActivatorModelResolver(logger, modelBuilder, null, null) {
+            @Override
+            protected ModelBuildingRequest modelBuildingRequest(final ProfileActivationContext context, final File pomFile) {
+                return new DefaultModelBuildingRequest().setPomFile(pomFile);
+            }
+        };
+
+        final ProjectBuildingRequest projectBuilding = new DefaultProjectBuildingRequest();
+        final Properties systemProperties = new Properties();
+        systemProperties.setProperty("java.version", "1.8.0_222");
+        projectBuilding.setSystemProperties(systemProperties);
+        projectBuilding.setUserProperties(new Properties());
+        resolver.setProjectBuildingRequest(projectBuilding);
+
+        // as MavenGoalEditorEventAware does before pre-warm
+        projectBuilding.getUserProperties().setProperty("mvn.deploy.publish.segregation.goal.deploy", "true");
+
+        new ModelPrewarmEventAware(resolver).onProjectBuildingRequest(
+            new DefaultMavenExecutionRequest().setPom(root.resolve("pom.xml").toFile()), projectBuilding, null);
+        assertEquals(2, modelBuilder.getBuilds());
+
+        // context Maven creates for the project from final project building request
+        final Profile profile = new Profile();
+        profile.setId("java8");
+        profile.setSource("pom");
+        final ProfileActivationContext context = new DefaultProfileActivationContext()
+            .setProjectDirectory(root.resolve("a").toFile())
+            .setSystemProperties(projectBuilding.getSystemProperties())
+            .setUserProperties(projectBuilding.getUserProperties());
+        assertTrue(resolver.resolveModel(profile, context).isPresent());
+        assertEquals(2, modelBuilder.getBuilds());
+    }
+}
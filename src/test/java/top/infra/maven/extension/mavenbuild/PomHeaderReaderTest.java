@@ -0,0 +1,88 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Optional;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import top.infra.maven.logging.Logger;
+import top.infra.maven.logging.LoggerSlf4jImpl;
+
+public class PomHeaderReaderTest {
+
+    private static final org.slf4j.Logger slf4jLogger = LoggerFactory.getLogger(PomHeaderReaderTest.class);
+
+    private static Logger logger() {
+        return new LoggerSlf4jImpl(slf4jLogger);
+    }
+
+    private static File pom(final String content) throws IOException {
+        final File pomFile = File.createTempFile("pom", ".xml");
+        pomFile.deleteOnExit();
+        Files.write(pomFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return pomFile;
+    }
+
+    @Test
+    public void testInheritedCoordinates() throws Exception {
+        final File pomFile = pom(""
+            + "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+            + "  <modelVersion>4.0.0</modelVersion>\n"
+            + "  <!-- comment -->\n"
+            + "  <parent>\n"
+            + "    <groupId>top.infra</groupId><artifactId>parent</artifactId><version>1.0.0-SNAPSHOT</version>\n"
+            + "    <relativePath>../parent/pom.xml</relativePath>\n"
+            + "  </parent>\n"
+            + "  <artifactId>child</artifactId>\n"
+            + "  <packaging>pom</packaging>\n"
+            + "  <name><version>ignored</version></name>\n"
+            + "</project>\n");
+
+        final Optional<MavenProjectInfo> projectInfo = MavenProjectInfo.newProjectInfoByReadPom(logger(), pomFile);
+        assertEquals("top.infra:child:pom:1.0.0-SNAPSHOT", projectInfo.map(MavenProjectInfo::getId).orElse(null));
+    }
+
+    @Test
+    public void testStopAtCoordinates() throws Exception {
+        // malformed after coordinates, never read
+        final File pomFile = pom(""
+            + "<project>\n"
+            + "  <groupId>top.infra</groupId><artifactId>root</artifactId><version>1.0.0</version><packaging>jar</packaging>\n"
+            + "  <build><plugins></build>\n"
+            + "</project>\n");
+
+        assertEquals("top.infra:root:jar:1.0.0", PomHeaderReader.read(pomFile).map(MavenProjectInfo::getId).orElse(null));
+    }
+
+    @Test
+    public void testStopAtHeaderEnd() throws Exception {
+        // no groupId and packaging, malformed after header, never read
+        final File pomFile = pom(""
+            + "<project>\n"
+            + "  <parent><groupId>top.infra</groupId><artifactId>parent</artifactId><version>1.0.0</version></parent>\n"
+            + "  <artifactId>child</artifactId>\n"
+            + "  <dependencies><dependency></dependencies>\n"
+            + "</project>\n");
+
+        assertEquals("top.infra:child:jar:1.0.0", PomHeaderReader.read(pomFile).map(MavenProjectInfo::getId).orElse(null));
+    }
+
+    @Test
+    public void testInterpolationNeeded() throws Exception {
+        final File pomFile = pom(""
+            + "<project>\n"
+            + "  <groupId>top.infra</groupId><artifactId>root</artifactId><version>${revision}</version>\n"
+            + "</project>\n");
+
+        assertEquals("top.infra:root:jar:${revision}", PomHeaderReader.read(pomFile).map(MavenProjectInfo::getId).orElse(null));
+        assertFalse(MavenProjectInfo.newProjectInfoByReadPom(logger(), pomFile).isPresent());
+    }
+}
@@ -0,0 +1,43 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class ProfileIdClassifierTest {
+
+    private static final Pattern PATTERN_JAVA_PROFILE = Pattern.compile(".*java[-]?(\\d+)[-]?.*");
+
+    private static final Pattern PATTERN_INFRASTRUCTURE_PROFILE = Pattern.compile(".*infrastructure_(\\w+)[-]?.*");
+
+    private static final List<String> IDS = Arrays.asList(
+        "java8", "java-8", "java-10-without-groovy", "java10without-groovy", "parent-java-8-profile2",
+        "java", "java-", "javax", "java-java11", "java8-java11",
+        "infrastructure_opensource", "infrastructure_opensource-github_site", "infrastructure_private-site",
+        "infrastructure_", "infrastructure-private", "infrastructure_infrastructure_ossrh", "infrastructure_ossrh_java9",
+        "multi_module_root_only", "run-on-multi-module-root-and-sub-modules", "infrastructure_private-multi_module_root_only",
+        "", "jjava7", "iinfrastructure_x"
+    );
+
+    @Test
+    public void testSameAsRegularExpressions() {
+        for (final String id : IDS) {
+            final ProfileIdClassifier classifier = ProfileIdClassifier.classify(id);
+
+            final Matcher java = PATTERN_JAVA_PROFILE.matcher(id);
+            assertEquals(id, java.matches() ? Optional.of(Integer.parseInt(java.group(1))) : Optional.empty(), classifier.getJavaVersion());
+
+            final Matcher infrastructure = PATTERN_INFRASTRUCTURE_PROFILE.matcher(id);
+            assertEquals(id,
+                infrastructure.matches() ? Optional.of(infrastructure.group(1)) : Optional.empty(), classifier.getInfrastructure());
+
+            assertEquals(id, id.contains("multi_module_root_only"), classifier.isMultiModuleRootOnly());
+        }
+    }
+}
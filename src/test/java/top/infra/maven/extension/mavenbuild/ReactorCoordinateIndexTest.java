@@ -0,0 +1,50 @@
+package top.infra.maven.extension.mavenbuild;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Test;
+
+import top.infra.maven.extension.mavenbuild.model.RawModelResolver;
+
+public class ReactorCoordinateIndexTest {
+
+    private static File pom(final Path directory, final String content) throws IOException {
+        Files.createDirectories(directory);
+        final Path pomFile = directory.resolve("pom.xml");
+        Files.write(pomFile, content.getBytes(StandardCharsets.UTF_8));
+        return pomFile.toFile();
+    }
+
+    @Test
+    public void testIndex() throws Exception {
+        final Path root = Files.createTempDirectory("reactor-coordinate-index");
+        final File rootPom = pom(root, ""
+            + "<project><groupId>top.infra</groupId><artifactId>root</artifactId><version>1.0.0-SNAPSHOT</version>"
+            + "<packaging>pom</packaging><modules><module>child</module></modules></project>");
+        pom(root.resolve("child"), ""
+            + "<project><parent><groupId>top.infra</groupId><artifactId>root</artifactId><version>1.0.0-SNAPSHOT</version></parent>"
+            + "<artifactId>child</artifactId></project>");
+
+        final ReactorCoordinateIndex index = ReactorCoordinateIndex.build(new RawModelResolver(new ConsoleLogger()).moduleModels(rootPom));
+        assertEquals(2, index.size());
+
+        final ReactorCoordinateIndex.Module child = index.find(root.resolve("child/../child").toFile()).orElse(null);
+        assertEquals("top.infra:child:jar:1.0.0-SNAPSHOT", child.getProjectInfo().getId());
+        assertFalse(child.isRoot());
+
+        final ReactorCoordinateIndex.Module parent = index.parent(child).orElse(null);
+        assertTrue(parent.isRoot());
+        assertEquals(parent, index.find("top.infra", "root").orElse(null));
+        assertFalse(index.parent(parent).isPresent());
+        assertFalse(index.find(root.resolve("absent").toFile()).isPresent());
+    }
+}
@@ -0,0 +1,76 @@
+package top.infra.maven.extension.mavenbuild.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Properties;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.profile.DefaultProfileActivationContext;
+import org.apache.maven.model.profile.ProfileActivationContext;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Test;
+
+public class AbstractActivatorModelResolverTest {
+
+    private static Profile profile(final String id) {
+        final Profile profile = new Profile();
+        profile.setId(id);
+        profile.setSource("pom");
+        return profile;
+    }
+
+    @Test
+    public void testOneBuildPerPom() throws Exception {
+        final Path basedir = Files.createTempDirectory("activator-model-resolver-test");
+        Files.write(basedir.resolve("pom.xml"), "<project/>".getBytes());
+
+        final AbstractActivatorModelResolver[] resolver = new AbstractActivatorModelResolver[1];
+        final StubModelBuilder modelBuilder = new StubModelBuilder(request -> {
+            // Maven evaluates activators of the pom being built, recursion gets empty result
+            final DefaultProfileActivationContext context = new DefaultProfileActivationContext()
+                .setProjectDirectory(request.getPomFile().getParentFile())
+                .setUserProperties(request.getUserProperties());
+            assertFalse(resolver[0].resolveModel(profile("java8"), context).isPresent());
+            assertFalse(resolver[0].resolveModel(profile("java11"), context).isPresent());
+            return new Model();
+        });
+        resolver[0] = new AbstractActivatorModelResolver(new ConsoleLogger(), modelBuilder) {
+            @Override
+            protected ModelBuildingRequest modelBuildingRequest(final ProfileActivationContext context, final File pomFile) {
+                final Properties userProperties = new Properties();
+                userProperties.putAll(context.getUserProperties());
+                return new DefaultModelBuildingRequest().setPomFile(pomFile).setUserProperties(userProperties);
+            }
+        };
+
+        final DefaultProfileActivationContext context = new DefaultProfileActivationContext()
+            .setProjectDirectory(basedir.toFile());
+        final Model model = resolver[0].resolveModel(profile("infrastructure_ossrh"), context).orElse(null);
+        for (final String id : new String[]{"java8", "java11", "multi_module_root_only", "infrastructure_private"}) {
+            assertSame(model, resolver[0].resolveModel(profile(id), context).orElse(null));
+        }
+        assertEquals(1, modelBuilder.getBuilds());
+
+        // properties changed, build again
+        context.setUserProperties(Collections.singletonMap("infrastructure", "ossrh"));
+        assertTrue(resolver[0].resolveModel(profile("java8"), context).isPresent());
+        assertEquals(2, modelBuilder.getBuilds());
+
+        // another context with same properties, same model
+        final DefaultProfileActivationContext another = new DefaultProfileActivationContext()
+            .setProjectDirectory(basedir.toFile())
+            .setUserProperties(Collections.singletonMap("infrastructure", "ossrh"));
+        assertTrue(resolver[0].resolveModel(profile("java11"), another).isPresent());
+        assertEquals(2, modelBuilder.getBuilds());
+    }
+}
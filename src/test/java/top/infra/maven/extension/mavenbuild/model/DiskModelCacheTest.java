@@ -0,0 +1,144 @@
+package top.infra.maven.extension.mavenbuild.model;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.DefaultModelBuilderFactory;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuilder;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import top.infra.maven.logging.Logger;
+import top.infra.maven.logging.LoggerSlf4jImpl;
+
+public class DiskModelCacheTest {
+
+    private static final org.slf4j.Logger slf4jLogger = LoggerFactory.getLogger(DiskModelCacheTest.class);
+
+    private static Logger logger() {
+        return new LoggerSlf4jImpl(slf4jLogger);
+    }
+
+    private static final String PARENT = "<project><modelVersion>4.0.0</modelVersion>"
+        + "<groupId>top.infra.test</groupId><artifactId>parent</artifactId><version>1.0.0</version><packaging>pom</packaging>"
+        + "<properties><site.path>${site.base}/parent</site.path></properties></project>";
+
+    private static final String CHILD = "<project><modelVersion>4.0.0</modelVersion>"
+        + "<parent><groupId>top.infra.test</groupId><artifactId>parent</artifactId><version>1.0.0</version></parent>"
+        + "<artifactId>child</artifactId></project>";
+
+    private static ModelBuildingRequest request(final Path pomFile, final String siteBase) {
+        final Properties systemProperties = new Properties();
+        systemProperties.setProperty("java.version", "1.8.0_222");
+        systemProperties.setProperty("site.base", siteBase);
+        systemProperties.setProperty("user.dir", siteBase); // not referenced
+        return new DefaultModelBuildingRequest()
+            .setPomFile(pomFile.toFile())
+            .setSystemProperties(systemProperties)
+            .setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL);
+    }
+
+    @Test
+    public void testParentChainAndReferencedProperties() throws Exception {
+        final Path project = Files.createTempDirectory("disk-model-cache-project");
+        Files.write(project.resolve("pom.xml"), PARENT.getBytes(UTF_8));
+        final Path child = Files.createDirectories(project.resolve("child")).resolve("pom.xml");
+        Files.write(child, CHILD.getBytes(UTF_8));
+
+        final ModelBuilder modelBuilder = new DefaultModelBuilderFactory().newInstance();
+        final DiskModelCache cache = new DiskModelCache(logger(), Files.createTempDirectory("disk-model-cache"));
+
+        assertFalse(cache.get(request(child, "/a")).isPresent());
+        cache.put(request(child, "/a"), modelBuilder.build(request(child, "/a")));
+
+        final Model model = cache.get(request(child, "/a")).orElse(null);
+        assertEquals("top.infra.test:child:jar:1.0.0", model.getId());
+        assertEquals("/a/parent", model.getProperties().getProperty("site.path"));
+        // unreferenced system property does not matter
+        final ModelBuildingRequest request = request(child, "/a");
+        request.getSystemProperties().setProperty("user.dir", "/b");
+        assertTrue(cache.get(request).isPresent());
+
+        // referenced system property changed
+        assertFalse(cache.get(request(child, "/b")).isPresent());
+
+        // parent changed
+        Files.write(project.resolve("pom.xml"), PARENT.replace("/parent<", "/changed<").getBytes(UTF_8));
+        assertFalse(cache.get(request(child, "/a")).isPresent());
+    }
+
+    @Test
+    public void testKeyedByReferencedUserPropertiesAndPrune() throws Exception {
+        final Path project = Files.createTempDirectory("disk-model-cache-project");
+        final Path pom = project.resolve("pom.xml");
+        Files.write(pom, PARENT.getBytes(UTF_8));
+
+        final ModelBuilder modelBuilder = new DefaultModelBuilderFactory().newInstance();
+        final Path cacheDirectory = Files.createTempDirectory("disk-model-cache");
+        final DiskModelCache cache = new DiskModelCache(logger(), cacheDirectory);
+
+        final ModelBuildingRequest request = request(pom, "/a");
+        request.getUserProperties().setProperty("build.number", "1");
+        cache.put(request, modelBuilder.build(request));
+
+        // unreferenced user property does not matter, no new entry per build
+        request.getUserProperties().setProperty("build.number", "2");
+        assertTrue(cache.get(request).isPresent());
+        // referenced user property is part of key
+        request.getUserProperties().setProperty("site.base", "/b");
+        assertFalse(cache.get(request).isPresent());
+        assertEquals(2, files(cacheDirectory).size());
+
+        // not used for long
+        final FileTime expired = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(31));
+        for (final Path file : files(cacheDirectory)) {
+            Files.setLastModifiedTime(file, expired);
+        }
+        cache.prune();
+        assertEquals(0, files(cacheDirectory).size());
+    }
+
+    private static List<Path> files(final Path directory) throws Exception {
+        try (final Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testMutableImport() {
+        final Dependency bom = new Dependency();
+        bom.setGroupId("top.infra.test");
+        bom.setArtifactId("bom");
+        bom.setType("pom");
+        bom.setScope("import");
+        final Model rawModel = new Model();
+        rawModel.setDependencyManagement(new DependencyManagement());
+        rawModel.getDependencyManagement().addDependency(bom);
+        final Model effectiveModel = new Model();
+
+        bom.setVersion("1.0.0");
+        assertFalse(DiskModelCache.mutableImport(rawModel, effectiveModel).isPresent());
+        bom.setVersion("${bom.version}");
+        assertEquals("top.infra.test:bom:pom", DiskModelCache.mutableImport(rawModel, effectiveModel).orElse(null));
+        effectiveModel.getProperties().setProperty("bom.version", "1.0.0");
+        assertFalse(DiskModelCache.mutableImport(rawModel, effectiveModel).isPresent());
+        effectiveModel.getProperties().setProperty("bom.version", "1.1.0-SNAPSHOT");
+        assertTrue(DiskModelCache.mutableImport(rawModel, effectiveModel).isPresent());
+    }
+}
@@ -0,0 +1,114 @@
+package top.infra.maven.extension.mavenbuild.model;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.profile.DefaultProfileActivationContext;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Test;
+
+public class RawModelResolverTest {
+
+    private static final String PARENT = "<project><modelVersion>4.0.0</modelVersion>"
+        + "<groupId>top.infra.test</groupId><artifactId>parent</artifactId><version>${revision}</version><packaging>pom</packaging>"
+        + "<properties><revision>1.0.0-SNAPSHOT</revision><javaVersionForce>8</javaVersionForce></properties></project>";
+
+    private static final String CHILD = "<project><modelVersion>4.0.0</modelVersion>"
+        + "<parent><groupId>top.infra.test</groupId><artifactId>parent</artifactId><version>${revision}</version></parent>"
+        + "<artifactId>child</artifactId>"
+        + "<properties><javaVersionForce>${java.force}</javaVersionForce></properties></project>";
+
+    private static Profile profile(final String id) {
+        final Profile profile = new Profile();
+        profile.setId(id);
+        profile.setSource("pom");
+        return profile;
+    }
+
+    @Test
+    public void testLocalParents() throws Exception {
+        final Path project = Files.createTempDirectory("raw-model-resolver-project");
+        Files.write(project.resolve("pom.xml"), PARENT.getBytes(UTF_8));
+        final Path child = Files.createDirectories(project.resolve("child"));
+        Files.write(child.resolve("pom.xml"), CHILD.getBytes(UTF_8));
+
+        final RawModelResolver resolver = new RawModelResolver(new ConsoleLogger());
+        final DefaultProfileActivationContext context = new DefaultProfileActivationContext()
+            .setProjectDirectory(child.toFile())
+            .setSystemProperties(Collections.singletonMap("java.force", "11"));
+
+        final Model model = resolver.resolveModel(profile("java11"), context, Arrays.asList("java.version", "javaVersionForce"))
+            .orElse(null);
+        assertEquals("top.infra.test:child:jar:1.0.0-SNAPSHOT", model.getId());
+        assertEquals("11", model.getProperties().getProperty("javaVersionForce"));
+        assertFalse(model.getProperties().containsKey("java.version"));
+
+        // user property overrides model property
+        context.setUserProperties(Collections.singletonMap("revision", "2.0.0"));
+        assertEquals("2.0.0", resolver.resolveModel(profile("java11"), context, Collections.emptyList())
+            .map(Model::getVersion).orElse(null));
+
+        // unresolvable expression, need effective model
+        context.setSystemProperties(Collections.emptyMap());
+        assertFalse(resolver.resolveModel(profile("java11"), context, Collections.singletonList("javaVersionForce")).isPresent());
+    }
+
+    @Test
+    public void testModules() throws Exception {
+        final Path project = Files.createTempDirectory("raw-model-resolver-reactor");
+        final String root = PARENT.replace("<properties>", "<modules><module>a</module><module>b/pom.xml</module></modules><properties>");
+        Files.write(project.resolve("pom.xml"), root.getBytes(UTF_8));
+        final String a = "<project><modules><module>../b</module><module>c</module></modules></project>";
+        Files.write(Files.createDirectories(project.resolve("a")).resolve("pom.xml"), a.getBytes(UTF_8));
+        Files.write(Files.createDirectories(project.resolve("b")).resolve("pom.xml"), CHILD.getBytes(UTF_8));
+        Files.write(Files.createDirectories(project.resolve("a/c")).resolve("pom.xml"), CHILD.getBytes(UTF_8));
+
+        final List<File> modules = new RawModelResolver(new ConsoleLogger()).modules(project.resolve("pom.xml").toFile());
+        assertEquals(Arrays.asList(
+            project.resolve("pom.xml").toFile(),
+            project.resolve("a/pom.xml").toFile(),
+            project.resolve("b/pom.xml").toFile(),
+            project.resolve("a/c/pom.xml").toFile()
+        ), modules);
+    }
+
+    @Test
+    public void testParentNotLocal() throws Exception {
+        final Path child = Files.createTempDirectory("raw-model-resolver-child");
+        Files.write(child.resolve("pom.xml"), CHILD.getBytes(UTF_8));
+
+        final RawModelResolver resolver = new RawModelResolver(new ConsoleLogger());
+        final DefaultProfileActivationContext context = new DefaultProfileActivationContext()
+            .setProjectDirectory(child.toFile());
+        assertFalse(resolver.resolveModel(profile("java11"), context, Collections.emptyList()).isPresent());
+    }
+
+    @Test
+    public void testProfileProperties() throws Exception {
+        final Path project = Files.createTempDirectory("raw-model-resolver-profile");
+        final String parent = PARENT.replace("</project>",
+            "<profiles><profile><id>jdk11</id><properties><javaVersionForce>11</javaVersionForce></properties></profile></profiles>"
+                + "</project>");
+        Files.write(project.resolve("pom.xml"), parent.getBytes(UTF_8));
+        final Path child = Files.createDirectories(project.resolve("child"));
+        Files.write(child.resolve("pom.xml"), CHILD.replace("${java.force}", "8").getBytes(UTF_8));
+
+        final RawModelResolver resolver = new RawModelResolver(new ConsoleLogger());
+        final DefaultProfileActivationContext context = new DefaultProfileActivationContext()
+            .setProjectDirectory(child.toFile());
+        assertTrue(resolver.resolveModel(profile("java11"), context, Collections.singletonList("java.version")).isPresent());
+        // a profile of parent may override it, need effective model
+        assertFalse(resolver.resolveModel(profile("java11"), context, Collections.singletonList("javaVersionForce")).isPresent());
+    }
+}
@@ -0,0 +1,58 @@
+package top.infra.maven.extension.mavenbuild.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.junit.Test;
+
+public class ReactorModelCacheTest {
+
+    private static Model model(final String artifactId, final int dependencies) {
+        final Model model = new Model();
+        model.setArtifactId(artifactId);
+        for (int idx = 0; idx < dependencies; idx++) {
+            model.addDependency(new Dependency());
+        }
+        return model;
+    }
+
+    @Test
+    public void testWeigh() {
+        assertEquals(10L, ReactorModelCache.weigh(model("a", 9)));
+
+        final DependencyManagement dependencyManagement = new DependencyManagement();
+        dependencyManagement.addDependency(new Dependency());
+        assertEquals(2L, ReactorModelCache.weigh(dependencyManagement));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsedIntoSoftTier() {
+        final ReactorModelCache cache = new ReactorModelCache(30L);
+        final Model a = model("a", 9);
+        final Model b = model("b", 9);
+        final Model c = model("c", 9);
+        cache.put("g", "a", "1", "raw", a);
+        cache.put("g", "b", "1", "raw", b);
+        cache.put("g", "c", "1", "raw", c);
+        assertEquals(0L, cache.getEvictions());
+
+        // 'a' used recently, 'b' is the eldest
+        assertSame(a, cache.get("g", "a", "1", "raw"));
+        cache.put("g", "d", "1", "raw", model("d", 9));
+        assertEquals(1L, cache.getEvictions());
+        assertTrue(cache.stats(), cache.stats().startsWith("entries=3 (soft 1), weight=30/30"));
+
+        // strongly reachable here, found in soft tier and promoted
+        assertSame(b, cache.get("g", "b", "1", "raw"));
+        assertTrue(cache.stats(), cache.stats().startsWith("entries=3 (soft 1)"));
+
+        assertNull(cache.get("g", "e", "1", "raw"));
+        assertEquals(2L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+    }
+}
@@ -0,0 +1,179 @@
+package top.infra.maven.extension.mavenbuild.model;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static top.infra.maven.extension.mavenbuild.utils.StubHttpTransport.response;
+
+import java.io.File;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelSource;
+import org.apache.maven.model.resolution.UnresolvableModelException;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import top.infra.maven.extension.mavenbuild.utils.DownloadUtils;
+import top.infra.maven.extension.mavenbuild.utils.HttpTransport;
+import top.infra.maven.extension.mavenbuild.utils.StubHttpTransport;
+
+@SuppressWarnings("deprecation")
+public class RepositoryModelResolverTest {
+
+    private static final String POM_PATH = "/top/infra/test/a/1.0.0/a-1.0.0.pom";
+
+    private static final String POM = "<project/>";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private HttpTransport transport;
+
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        this.transport = DownloadUtils.getTransport();
+    }
+
+    @After
+    public void tearDown() {
+        DownloadUtils.setTransport(this.transport);
+    }
+
+    private static Repository repository(final String id) {
+        final Repository repository = new Repository();
+        repository.setId(id);
+        repository.setUrl("http://" + id);
+        return repository;
+    }
+
+    private static List<String> ids(final List<Repository> repositories) {
+        return repositories.stream().map(Repository::getId).collect(Collectors.toList());
+    }
+
+    private RepositoryModelResolver resolver(final String... ids) throws Exception {
+        final RepositoryModelResolver resolver = new RepositoryModelResolver(new ConsoleLogger());
+        resolver.setLocalRepository(this.temporaryFolder.getRoot().getPath());
+        for (final String id : ids) {
+            resolver.addRepository(repository(id));
+        }
+        return resolver;
+    }
+
+    private void await(final CountDownLatch latch, final String url) throws InterruptedIOException {
+        try {
+            latch.await();
+        } catch (final InterruptedException ex) {
+            this.interrupted.countDown();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(url);
+        }
+    }
+
+    /**
+     * Wait for losers to clean up by themselves.
+     */
+    private static void assertOnlyPom(final File directory) throws InterruptedException {
+        final List<String> expected = Collections.singletonList("a-1.0.0.pom");
+        for (int idx = 0; idx < 100 && !expected.equals(Arrays.asList(directory.list())); idx++) {
+            Thread.sleep(50L);
+        }
+        assertEquals(expected, Arrays.asList(directory.list()));
+    }
+
+    @Test
+    public void testFirstSuccessWins() throws Exception {
+        final StubHttpTransport stub = new StubHttpTransport()
+            .on("http://fast" + POM_PATH, response(200, POM))
+            .on("http://slow" + POM_PATH, response(200, POM));
+        final CountDownLatch slowStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        DownloadUtils.setTransport((method, url, headers) -> {
+            if (url.startsWith("http://slow")) {
+                slowStarted.countDown();
+                this.await(release, url);
+            } else if (url.startsWith("http://fast")) {
+                this.await(slowStarted, url);
+            }
+            return stub.send(method, url, headers);
+        });
+
+        final RepositoryModelResolver resolver = this.resolver("slow", "fast");
+        final ModelSource source = resolver.resolveModel("top.infra.test", "a", "1.0.0");
+        final File pom = ((FileModelSource) source).getFile();
+        assertEquals(POM, new String(Files.readAllBytes(pom.toPath()), UTF_8));
+
+        // loser is cancelled and removes its part file
+        assertTrue(this.interrupted.await(5L, TimeUnit.SECONDS));
+        assertOnlyPom(pom.getParentFile());
+        release.countDown();
+
+        // winner is tried first next time, repositories not found in (404) are not demoted
+        assertEquals(Arrays.asList("fast", "central", "mirror1"), ids(resolver.candidates(false)).subList(0, 3));
+    }
+
+    @Test
+    public void testSamePomByConcurrentThreads() throws Exception {
+        final StubHttpTransport stub = new StubHttpTransport()
+            .on("http://fast" + POM_PATH, response(200, POM));
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+        DownloadUtils.setTransport((method, url, headers) -> {
+            if (url.startsWith("http://fast")) {
+                bothStarted.countDown();
+                this.await(bothStarted, url);
+            }
+            return stub.send(method, url, headers);
+        });
+
+        final RepositoryModelResolver resolver = this.resolver("fast");
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<Future<ModelSource>> futures = Arrays.asList(
+                executor.submit(() -> resolver.resolveModel("top.infra.test", "a", "1.0.0")),
+                executor.submit(() -> resolver.resolveModel("top.infra.test", "a", "1.0.0")));
+            for (final Future<ModelSource> future : futures) {
+                final File pom = ((FileModelSource) future.get(10L, TimeUnit.SECONDS)).getFile();
+                assertEquals(POM, new String(Files.readAllBytes(pom.toPath()), UTF_8));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertOnlyPom(new File(this.temporaryFolder.getRoot(), "top/infra/test/a/1.0.0"));
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        DownloadUtils.setTransport(new StubHttpTransport()
+            .on("http://broken" + POM_PATH, response(503, null)));
+
+        final RepositoryModelResolver resolver = this.resolver("broken", "notfound");
+        try {
+            resolver.resolveModel("top.infra.test", "a", "1.0.0");
+            fail("pom is not found in any repository");
+        } catch (final UnresolvableModelException expected) {
+            // expected
+        }
+
+        // only 5xx or I/O errors move a repository to the end
+        assertEquals(Arrays.asList("central", "mirror1", "notfound", "broken"), ids(resolver.candidates(false)));
+        assertEquals(Collections.emptyList(), Arrays.asList(new File(this.temporaryFolder.getRoot(), "top/infra/test/a/1.0.0").list()));
+    }
+}
@@ -0,0 +1,86 @@
+package top.infra.maven.extension.mavenbuild.model;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.building.ModelBuilder;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingResult;
+import org.apache.maven.model.building.ModelProblem;
+import org.apache.maven.model.building.Result;
+
+/**
+ * ModelBuilder that builds effective models by a function and counts builds.
+ */
+public class StubModelBuilder implements ModelBuilder {
+
+    private final Function<ModelBuildingRequest, Model> builder;
+
+    private final AtomicInteger builds;
+
+    public StubModelBuilder(final Function<ModelBuildingRequest, Model> builder) {
+        this.builder = builder;
+        this.builds = new AtomicInteger(0);
+    }
+
+    public int getBuilds() {
+        return this.builds.get();
+    }
+
+    @Override
+    public ModelBuildingResult build(final ModelBuildingRequest request) {
+        this.builds.incrementAndGet();
+        final Model model = this.builder.apply(request);
+        return new ModelBuildingResult() {
+            @Override
+            public List<String> getModelIds() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Model getEffectiveModel() {
+                return model;
+            }
+
+            @Override
+            public Model getRawModel() {
+                return model;
+            }
+
+            @Override
+            public Model getRawModel(final String modelId) {
+                return null;
+            }
+
+            @Override
+            public List<Profile> getActivePomProfiles(final String modelId) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public List<Profile> getActiveExternalProfiles() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public List<ModelProblem> getProblems() {
+                return Collections.emptyList();
+            }
+        };
+    }
+
+    @Override
+    public ModelBuildingResult build(final ModelBuildingRequest request, final ModelBuildingResult result) {
+        return this.build(request);
+    }
+
+    @Override
+    public Result<? extends Model> buildRawModel(final File pomFile, final int validationLevel, final boolean locationTracking) {
+        throw new UnsupportedOperationException();
+    }
+}
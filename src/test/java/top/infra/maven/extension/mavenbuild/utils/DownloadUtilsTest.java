@@ -0,0 +1,100 @@
+package top.infra.maven.extension.mavenbuild.utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static top.infra.maven.extension.mavenbuild.utils.StubHttpTransport.response;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import top.infra.maven.logging.Logger;
+import top.infra.maven.logging.LoggerSlf4jImpl;
+
+public class DownloadUtilsTest {
+
+    private static final org.slf4j.Logger slf4jLogger = LoggerFactory.getLogger(DownloadUtilsTest.class);
+
+    private HttpTransport transport;
+
+    private static Logger logger() {
+        return new LoggerSlf4jImpl(slf4jLogger);
+    }
+
+    @Before
+    public void setUp() {
+        this.transport = DownloadUtils.getTransport();
+    }
+
+    @After
+    public void tearDown() {
+        DownloadUtils.setTransport(this.transport);
+    }
+
+    @Test
+    public void testRedirectAndRetry() throws Exception {
+        final StubHttpTransport stub = new StubHttpTransport()
+            .on("http://a/file.xml", response(302, null, "Location", "/b/file.xml"))
+            .on("http://a/b/file.xml", response(503, null), response(200, "content"));
+        DownloadUtils.setTransport(stub);
+
+        final Path saveToFile = Files.createTempDirectory("download-utils-test").resolve("file.xml");
+        final Entry<Optional<Integer>, Optional<Exception>> result = DownloadUtils.download(
+            logger(), "http://a/file.xml", saveToFile.toString(), null, 2);
+
+        assertEquals(Optional.of(200), result.getKey());
+        assertFalse(result.getValue().isPresent());
+        assertEquals("content", new String(Files.readAllBytes(saveToFile), UTF_8));
+        // redirect does not count as a try
+        assertEquals(Arrays.asList("GET http://a/file.xml", "GET http://a/b/file.xml", "GET http://a/b/file.xml"), stub.getRequests());
+    }
+
+    @Test
+    public void testCrossHostRedirect() throws Exception {
+        final StubHttpTransport stub = new StubHttpTransport()
+            .on("https://gitlab/file.xml", response(302, null, "Location", "https://gitlab/raw/file.xml", "ETag", "\"redirect\""))
+            .on("https://gitlab/raw/file.xml", response(302, null, "Location", "https://storage/file.xml"))
+            .on("https://storage/file.xml", response(200, "content", "Last-Modified", "Mon, 01 Jan 2018 00:00:00 GMT"));
+        DownloadUtils.setTransport(stub);
+
+        final Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("PRIVATE-TOKEN", "secret");
+        headers.put(DownloadUtils.HEADER_IF_NONE_MATCH, "\"old\"");
+        final Map<String, String> responseHeaders = new LinkedHashMap<>();
+        final Path saveToFile = Files.createTempDirectory("download-utils-test").resolve("file.xml");
+        final Entry<Optional<Integer>, Optional<Exception>> result = DownloadUtils.download(
+            logger(), "https://gitlab/file.xml", saveToFile.toString(), headers, 1, responseHeaders);
+
+        assertEquals(Optional.of(200), result.getKey());
+        final List<Map<String, String>> requestHeaders = stub.getRequestHeaders();
+        // same host keeps token, other host does not get it
+        assertEquals("secret", requestHeaders.get(1).get("PRIVATE-TOKEN"));
+        assertFalse(requestHeaders.get(2).containsKey("PRIVATE-TOKEN"));
+        assertEquals("\"old\"", requestHeaders.get(2).get(DownloadUtils.HEADER_IF_NONE_MATCH));
+        // only headers of final response
+        assertFalse(responseHeaders.containsKey(DownloadUtils.HEADER_ETAG));
+        assertEquals("Mon, 01 Jan 2018 00:00:00 GMT", responseHeaders.get(DownloadUtils.HEADER_LAST_MODIFIED));
+    }
+
+    @Test
+    public void testNotModifiedAndNotFound() throws Exception {
+        DownloadUtils.setTransport(new StubHttpTransport().on("http://a/file.xml", response(304, null)));
+
+        final Path saveToFile = Files.createTempDirectory("download-utils-test").resolve("file.xml");
+        assertEquals(Optional.of(304), DownloadUtils.download(logger(), "http://a/file.xml", saveToFile.toString(), null, 3).getKey());
+        assertFalse(saveToFile.toFile().exists());
+
+        assertEquals(Optional.of(404), DownloadUtils.download(logger(), "http://a/missing.xml", saveToFile.toString(), null, 3).getKey());
+    }
+}
@@ -0,0 +1,35 @@
+package top.infra.maven.extension.mavenbuild.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.Properties;
+
+import org.junit.Test;
+
+public class LayeredPropertyViewTest {
+
+    @Test
+    public void testPrecedence() {
+        final Properties system = new Properties();
+        system.setProperty("java.version", "1.8");
+        system.setProperty("os.name", "Linux");
+        final Properties model = new Properties();
+        model.setProperty("java.version", "11");
+
+        final LayeredPropertyView view = LayeredPropertyView.of(
+            Collections.singletonMap("javaVersionForce", "8"), null, model, system);
+        assertEquals("8", view.getProperty("javaVersionForce"));
+        assertEquals("11", view.getProperty("java.version"));
+        assertEquals("Linux", view.getProperty("os.name"));
+        assertNull(view.getProperty("absent"));
+        assertEquals("default", view.getProperty("absent", "default"));
+        assertFalse(view.containsKey("absent"));
+
+        // not copied
+        model.setProperty("os.name", "Mac OS X");
+        assertEquals("Mac OS X", view.getProperty("os.name"));
+    }
+}
@@ -0,0 +1,94 @@
+package top.infra.maven.extension.mavenbuild.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process transport, responses are queued per url (last one repeats), requests are recorded.
+ */
+public class StubHttpTransport implements HttpTransport {
+
+    private final Map<String, LinkedList<Response>> responses;
+
+    private final List<String> requests;
+
+    private final List<Map<String, String>> requestHeaders;
+
+    public StubHttpTransport() {
+        this.responses = new ConcurrentHashMap<>();
+        this.requests = Collections.synchronizedList(new ArrayList<>());
+        this.requestHeaders = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    public static Response response(final int status, final String body, final String... headerNamesAndValues) {
+        final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int idx = 0; idx + 1 < headerNamesAndValues.length; idx += 2) {
+            headers.put(headerNamesAndValues[idx], headerNamesAndValues[idx + 1]);
+        }
+        final byte[] bytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        return new Response() {
+            @Override
+            public int getStatus() {
+                return status;
+            }
+
+            @Override
+            public Map<String, String> getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(bytes);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    public StubHttpTransport on(final String url, final Response... responses) {
+        final LinkedList<Response> queue = new LinkedList<>();
+        Collections.addAll(queue, responses);
+        this.responses.put(url, queue);
+        return this;
+    }
+
+    public List<String> getRequests() {
+        return new ArrayList<>(this.requests);
+    }
+
+    /**
+     * Headers of each request (same order as {@link #getRequests()}).
+     *
+     * @return request headers
+     */
+    public List<Map<String, String>> getRequestHeaders() {
+        return new ArrayList<>(this.requestHeaders);
+    }
+
+    @Override
+    public Response send(final String method, final String url, final Map<String, String> headers) {
+        this.requests.add(method + " " + url);
+        this.requestHeaders.add(headers != null ? new TreeMap<>(headers) : Collections.emptyMap());
+        final LinkedList<Response> queue = this.responses.get(url);
+        final Response result;
+        if (queue == null || queue.isEmpty()) {
+            result = response(404, null);
+        } else {
+            synchronized (queue) {
+                result = queue.size() > 1 ? queue.removeFirst() : queue.getFirst();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,29 @@
+package top.infra.maven.extension.mavenbuild.utils;
+
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class SystemUtilsTest {
+
+    @Test
+    public void testForkJoinPoolContextClassLoader() throws Exception {
+        final Thread current = Thread.currentThread();
+        final ClassLoader original = current.getContextClassLoader();
+        final ClassLoader realm = new URLClassLoader(new URL[0], original);
+        current.setContextClassLoader(realm);
+        final ForkJoinPool pool = SystemUtils.newForkJoinPool();
+        try {
+            assertTrue(pool.submit(() -> IntStream.range(0, 64).parallel()
+                .allMatch(idx -> Thread.currentThread().getContextClassLoader() == realm)).get());
+        } finally {
+            pool.shutdown();
+            current.setContextClassLoader(original);
+        }
+    }
+}